@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подписчик SSE с ограниченной очередью событий.
+ * События отправляет задача, которая запускается на executor только когда очередь не пуста,
+ * поэтому простаивающее соединение не занимает поток. Если клиент не успевает читать и очередь
+ * переполнилась, подписчик отключается — публикующий поток при этом никогда не блокируется.
+ */
+@Slf4j
+public class SseSubscriber {
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Runnable onClose = () -> { };
+
+    public SseSubscriber(Long userId, SseEmitter emitter, int capacity, Executor executor) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.executor = executor;
+        emitter.onCompletion(this::closed);
+        emitter.onTimeout(this::closed);
+        emitter.onError(error -> closed());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Вызывается один раз, когда подписчик отключён по любой причине.
+     */
+    public void onClose(Runnable callback) {
+        this.onClose = callback;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Ставит в очередь готовый кадр события (SseEventBuilder.build()). Один кадр можно отдать
+     * нескольким подписчикам. Возвращает false, если подписчик закрыт или отключён как медленный.
+     */
+    public boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!queue.offer(event)) {
+            log.debug("Подписчик {} не успевает читать события, отключаем", userId);
+            close();
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Отключает подписчика. Завершение соединения выполняется на executor: emitter синхронизирован,
+     * и вызов из публикующего потока ждал бы окончания зависшей отправки.
+     */
+    public void close() {
+        if (closed()) {
+            executor.execute(emitter::complete);
+        }
+    }
+
+    private boolean closed() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        queue.clear();
+        onClose.run();
+        return true;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while (!closed.get() && (event = queue.poll()) != null) {
+                emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик {} отключился: {}", userId, e.getMessage());
+            close();
+        } finally {
+            draining.set(false);
+        }
+        if (!closed.get() && !queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
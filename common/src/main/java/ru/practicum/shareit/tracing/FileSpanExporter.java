@@ -0,0 +1,59 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Дописывает участки трассы в локальный файл: по одному JSON‑объекту на строку.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter, AutoCloseable {
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public FileSpanExporter(Path file, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось открыть файл трасс " + file, e);
+        }
+    }
+
+    @Override
+    public void export(Span span) {
+        try {
+            String line = objectMapper.writeValueAsString(span);
+            synchronized (writer) {
+                writer.write(line);
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сериализовать span {}", span, e);
+        } catch (IOException e) {
+            log.warn("Не удалось записать span в файл", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+}
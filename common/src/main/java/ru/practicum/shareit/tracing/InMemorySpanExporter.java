@@ -0,0 +1,28 @@
+package ru.practicum.shareit.tracing;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Накапливает участки трассы в памяти. Предназначен для тестов.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+    private final ConcurrentLinkedQueue<Span> spans = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public void export(Span span) {
+        spans.add(span);
+    }
+
+    public List<Span> getSpans() {
+        return List.copyOf(spans);
+    }
+
+    public List<Span> getSpans(String traceId) {
+        return spans.stream().filter(span -> span.traceId().equals(traceId)).toList();
+    }
+
+    public void clear() {
+        spans.clear();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Пишет участки трассы в лог (уровень DEBUG логгера ru.practicum.shareit.tracing).
+ */
+@Slf4j
+public class LoggingSpanExporter implements SpanExporter {
+
+    @Override
+    public void export(Span span) {
+        log.debug("span trace={} id={} parent={} name='{}' duration={}us error={}",
+                span.traceId(), span.spanId(), span.parentSpanId(), span.name(), span.durationMicros(), span.error());
+    }
+}
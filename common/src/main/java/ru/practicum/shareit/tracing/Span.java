@@ -0,0 +1,16 @@
+package ru.practicum.shareit.tracing;
+
+import java.time.Instant;
+
+/**
+ * Завершённый участок трассы (span).
+ * parentSpanId равен null у корневого участка; error содержит класс исключения, если участок завершился ошибкой.
+ */
+public record Span(String traceId,
+                   String spanId,
+                   String parentSpanId,
+                   String name,
+                   Instant start,
+                   long durationMicros,
+                   String error) {
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.tracing;
+
+/**
+ * Получатель завершённых участков трассы.
+ */
+public interface SpanExporter {
+    void export(Span span);
+}
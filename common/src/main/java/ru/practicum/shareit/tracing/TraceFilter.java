@@ -0,0 +1,43 @@
+package ru.practicum.shareit.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Продолжает трассу, пришедшую в заголовке X-Trace-Id (от клиента или от gateway), или начинает новую,
+ * и оборачивает обработку запроса в корневой участок «имя-сервиса метод URI».
+ * Идентификатор трассы возвращается в ответе.
+ */
+@RequiredArgsConstructor
+public class TraceFilter extends OncePerRequestFilter {
+    private static final Pattern VALID_TRACE_ID = Pattern.compile("[0-9a-fA-F-]{8,64}");
+
+    private final Tracer tracer;
+    private final String serviceName;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String incoming = request.getHeader(CustomHttpHeader.TRACE_ID);
+        String traceId = incoming != null && VALID_TRACE_ID.matcher(incoming).matches() ? incoming : null;
+
+        try (Tracer.Scope scope = tracer.startTrace(traceId, serviceName + " " + request.getMethod() + " " + request.getRequestURI())) {
+            response.setHeader(CustomHttpHeader.TRACE_ID, scope.getTraceId());
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException e) {
+                scope.error(e);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ведёт стек активных участков трассы текущего потока и отдаёт завершённые участки в {@link SpanExporter}.
+ * Идентификатор трассы кладётся в MDC под ключом traceId, чтобы попадать в логи.
+ */
+@RequiredArgsConstructor
+public class Tracer {
+    public static final String MDC_TRACE_ID = "traceId";
+
+    private static final ThreadLocal<Deque<Scope>> ACTIVE = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final SpanExporter exporter;
+
+    /**
+     * Начинает корневой участок трассы с переданным (или новым, если null) идентификатором.
+     */
+    public Scope startTrace(String traceId, String name) {
+        String id = traceId != null ? traceId : newId(16);
+        MDC.put(MDC_TRACE_ID, id);
+        return push(new Scope(id, null, name));
+    }
+
+    /**
+     * Начинает дочерний участок текущей трассы; если трассы нет — начинает новую.
+     */
+    public Scope startSpan(String name) {
+        Scope parent = ACTIVE.get().peek();
+        if (parent == null) {
+            return startTrace(null, name);
+        }
+        return push(new Scope(parent.traceId, parent.spanId, name));
+    }
+
+    /**
+     * Идентификатор текущей трассы или null.
+     */
+    public String currentTraceId() {
+        Scope current = ACTIVE.get().peek();
+        return current != null ? current.traceId : null;
+    }
+
+    /**
+     * Генерирует случайный идентификатор из указанного числа байт в шестнадцатеричном виде.
+     */
+    public static String newId(int bytes) {
+        byte[] id = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(id);
+        return HexFormat.of().formatHex(id);
+    }
+
+    private Scope push(Scope scope) {
+        ACTIVE.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * Активный участок трассы. Закрывается в try‑with‑resources.
+     */
+    public final class Scope implements AutoCloseable {
+        private final String traceId;
+        private final String spanId;
+        private final String parentSpanId;
+        private final String name;
+        private final Instant start = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private String error;
+
+        private Scope(String traceId, String parentSpanId, String name) {
+            this.traceId = traceId;
+            this.spanId = newId(8);
+            this.parentSpanId = parentSpanId;
+            this.name = name;
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        /**
+         * Отмечает участок как завершившийся ошибкой.
+         */
+        public void error(Throwable throwable) {
+            this.error = throwable.getClass().getSimpleName();
+        }
+
+        @Override
+        public void close() {
+            long durationMicros = (System.nanoTime() - startNanos) / 1000;
+            Deque<Scope> active = ACTIVE.get();
+            active.remove(this);
+            if (active.isEmpty()) {
+                ACTIVE.remove();
+                MDC.remove(MDC_TRACE_ID);
+            }
+            exporter.export(new Span(traceId, spanId, parentSpanId, name, start, durationMicros, error));
+        }
+    }
+}
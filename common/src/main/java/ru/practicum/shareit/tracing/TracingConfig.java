@@ -0,0 +1,47 @@
+package ru.practicum.shareit.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.nio.file.Path;
+
+/**
+ * Конфигурация сквозной трассировки запросов, общая для gateway и server.
+ * shareit.tracing.service-name подписывает корневые участки (gateway или server);
+ * shareit.tracing.exporter выбирает получателя участков: log (по умолчанию), file (shareit.tracing.file) или memory.
+ * При shareit.tracing.enabled=false трассировка не регистрируется.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter spanExporter(@Value("${shareit.tracing.exporter:log}") String exporter,
+                                     @Value("${shareit.tracing.file:traces/spans.jsonl}") String file,
+                                     ObjectMapper objectMapper) {
+        return switch (exporter) {
+            case "file" -> new FileSpanExporter(Path.of(file), objectMapper);
+            case "memory" -> new InMemorySpanExporter();
+            default -> new LoggingSpanExporter();
+        };
+    }
+
+    @Bean
+    public Tracer tracer(SpanExporter spanExporter) {
+        return new Tracer(spanExporter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TraceFilter> traceFilter(Tracer tracer,
+                                                           @Value("${shareit.tracing.service-name:shareit}") String serviceName) {
+        FilterRegistrationBean<TraceFilter> registration =
+                new FilterRegistrationBean<>(new TraceFilter(tracer, serviceName));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Ограничение размера кэшей в памяти на ConcurrentHashMap.
+ * Политика одна для всех кэшей: когда для новых записей не хватает места, сначала удаляются записи,
+ * которые больше не нужны (stale: просроченные, устаревшие, восстановившиеся), затем произвольные записи —
+ * с запасом в десятую часть лимита. Запас означает, что полный проход по кэшу случается раз на maxSize/10
+ * новых ключей, а не на каждый. Произвольная запись может оказаться нужной — её владелец просто
+ * загрузит или заведёт её заново.
+ */
+public final class BoundedMaps {
+
+    private BoundedMaps() {
+    }
+
+    /**
+     * Освобождает место под incoming новых записей, если с ними размер превысит maxSize.
+     */
+    public static <K, V> void ensureCapacity(Map<K, V> map, int maxSize, int incoming, Predicate<? super V> stale) {
+        if (map.size() + incoming <= maxSize) {
+            return;
+        }
+        map.values().removeIf(stale);
+        int excess = map.size() + incoming - maxSize + Math.max(1, maxSize / 10);
+        Iterator<K> keys = map.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * Освобождает место под запись key, если её ещё нет в map.
+     */
+    public static <K, V> void ensureCapacity(Map<K, V> map, K key, int maxSize, Predicate<? super V> stale) {
+        if (!map.containsKey(key)) {
+            ensureCapacity(map, maxSize, 1, stale);
+        }
+    }
+}
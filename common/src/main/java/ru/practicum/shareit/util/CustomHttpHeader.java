@@ -2,4 +2,6 @@ package ru.practicum.shareit.util;
 
 public class CustomHttpHeader {
     public static final String USER_ID = "X-Sharer-User-Id";
+    public static final String TRACE_ID = "X-Trace-Id";
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
 }
@@ -4,13 +4,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,8 +35,9 @@ public class BookingClient extends BaseClient {
                         // Устанавливаем базовый URL и префикс API
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         // Используем HttpComponentsClient для HTTP-запросов
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(BaseClient::requestFactory)
+                        .build(),
+                "bookings"
         );
     }
 
@@ -45,17 +47,19 @@ public class BookingClient extends BaseClient {
      * @param state Статус бронирований (ALL, CURRENT и др.)
      * @param from Смещение для пагинации (сколько записей пропустить)
      * @param size Размер страницы (сколько записей вернуть)
+     * @param view Представление списка (full или compact)
      * @return HTTP-ответ с списком бронирований
      */
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size, String view) {
         // Формируем параметры запроса
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "view", view
         );
         // Выполняем GET-запрос с параметрами
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}&view={view}", userId, parameters);
     }
 
     /**
@@ -96,18 +100,39 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    /**
+     * Одобряет или отклоняет несколько бронирований владельца.
+     * @param userId ID пользователя (владельца ресурса)
+     * @param decisions решения по бронированиям
+     * @return HTTP-ответ с результатом по каждому бронированию
+     */
+    public ResponseEntity<Object> approveAll(Long userId, List<BookingDecisionDto> decisions) {
+        return patch("", userId, decisions);
+    }
+
     /**
      * Получает бронирования, связанные с владельцем ресурса.
      * @param userId ID владельца (в заголовке)
      * @param state Статус бронирований
+     * @param view Представление списка (full или compact)
      * @return HTTP-ответ со списком бронирований владельца
      */
-    public ResponseEntity<Object> getBookingsByOwner(Long userId, BookingState state) {
-        // Формируем параметр состояния
+    public ResponseEntity<Object> getBookingsByOwner(Long userId, BookingState state, String view) {
+        // Формируем параметры состояния и представления
         Map<String, Object> parameters = Map.of(
-                "state", state.name()
+                "state", state.name(),
+                "view", view
         );
-        // Выполняем GET-запрос по пути /owner с параметром state
-        return get("/owner?state={state}", userId, parameters);
+        // Выполняем GET-запрос по пути /owner с параметрами state и view
+        return get("/owner?state={state}&view={view}", userId, parameters);
+    }
+
+    /**
+     * Получает число бронирований владельца по каждому состоянию.
+     * @param userId ID владельца (в заголовке)
+     * @return HTTP-ответ со счётчиками бронирований владельца
+     */
+    public ResponseEntity<Object> getCountersByOwner(Long userId) {
+        return get("/owner/counters", userId);
     }
 }
@@ -1,18 +1,28 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.stream.BookingEventHub;
 import ru.practicum.shareit.util.CustomHttpHeader;
 
+import java.util.List;
+
 /**
  * Контроллер для управления бронированиями.
  * Обрабатывает HTTP-запросы по пути /bookings и делегирует логику BookingClient.
@@ -27,17 +37,23 @@ import ru.practicum.shareit.util.CustomHttpHeader;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_DECISIONS = 100; // Максимум решений в одном пакетном одобрении
+    private static final String VIEWS = "full|compact"; // Представления списков бронирований
+
     private final BookingClient bookingClient; // Клиент для взаимодействия с сервисом бронирований
+    private final BookingEventHub bookingEventHub; // Раздача событий бронирований по SSE
 
     /**
      * Получает список бронирований пользователя с пагинацией и фильтрацией по статусу.
+     * view=compact — предметы и пользователи передаются один раз в отдельных таблицах.
      */
     @GetMapping
     public ResponseEntity<Object> getBookings(
             @PositiveOrZero @RequestHeader(CustomHttpHeader.USER_ID) long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @Pattern(regexp = VIEWS) @RequestParam(name = "view", defaultValue = "full") String view) {
 
         // Преобразуем строковый параметр в enum BookingState
         BookingState state = BookingState.from(stateParam)
@@ -45,7 +61,7 @@ public class BookingController {
 
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
 
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, state, from, size, view);
     }
 
     /**
@@ -89,16 +105,47 @@ public class BookingController {
     }
 
     /**
-     * Получает бронирования, связанные с владельцем ресурса.
+     * Одобряет или отклоняет несколько бронирований владельца за один запрос.
+     */
+    @PatchMapping
+    public ResponseEntity<Object> approveAll(
+            @PositiveOrZero @RequestHeader(CustomHttpHeader.USER_ID) Long userId,
+            @RequestBody @NotEmpty @Size(max = MAX_DECISIONS) List<@Valid @NotNull BookingDecisionDto> decisions) {
+        log.info("Approve bookings userId = {}, decisions = {}", userId, decisions.size());
+        return bookingClient.approveAll(userId, decisions);
+    }
+
+    /**
+     * Получает бронирования, связанные с владельцем ресурса (view=compact — компактный вид).
      */
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsByOwner(
             @PositiveOrZero @RequestHeader(CustomHttpHeader.USER_ID) Long userId,
-            @RequestParam(defaultValue = "ALL") String stateParam) {
+            @RequestParam(defaultValue = "ALL") String stateParam,
+            @Pattern(regexp = VIEWS) @RequestParam(name = "view", defaultValue = "full") String view) {
 
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 
-        return bookingClient.getBookingsByOwner(userId, state);
+        return bookingClient.getBookingsByOwner(userId, state, view);
+    }
+
+    /**
+     * Получает число бронирований владельца по каждому состоянию.
+     */
+    @GetMapping("/owner/counters")
+    public ResponseEntity<Object> getCountersByOwner(
+            @PositiveOrZero @RequestHeader(CustomHttpHeader.USER_ID) Long userId) {
+        return bookingClient.getCountersByOwner(userId);
+    }
+
+    /**
+     * Открывает поток Server-Sent Events с изменениями статусов бронирований пользователя
+     * (как владельца вещей и как арендатора) вместо периодического опроса.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PositiveOrZero @RequestHeader(CustomHttpHeader.USER_ID) Long userId) {
+        log.info("Subscribe to booking events userId = {}", userId);
+        return bookingEventHub.subscribe(userId);
     }
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto { //решение владельца по одному бронированию в пакетном одобрении
+
+    @NotNull
+    @PositiveOrZero
+    private Long bookingId;
+    @NotNull
+    private Boolean approved;
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Раздача событий бронирований клиентам шлюза.
+ * Все события приходят по одной подписке на сервер (BookingEventUpstream) и отправляются
+ * подписчикам владельца и арендатора. Соединение клиента не занимает поток, пока нет событий:
+ * у каждого подписчика ограниченная очередь, отправка идёт на виртуальных потоках, медленные
+ * подписчики отключаются, а периодический пинг закрывает оборванные соединения.
+ */
+@Slf4j
+@Component
+public class BookingEventHub {
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final Map<Long, Set<SseSubscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("booking-stream-heartbeat").daemon().factory());
+    private final Counter published;
+    private final Counter slowDisconnects;
+
+    public BookingEventHub(ObjectMapper objectMapper,
+                           ObjectProvider<MeterRegistry> meterRegistry,
+                           @Value("${shareit.stream.queue-capacity:64}") int queueCapacity,
+                           @Value("${shareit.stream.timeout-ms:1800000}") long timeoutMs,
+                           @Value("${shareit.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("shareit.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Открытые подписки клиентов на поток бронирований")
+                .register(registry);
+        this.published = Counter.builder("shareit.stream.events")
+                .description("События, полученные от сервера и разосланные клиентам")
+                .register(registry);
+        this.slowDisconnects = Counter.builder("shareit.stream.slow.disconnects")
+                .description("Клиенты, отключённые из-за переполнения очереди")
+                .register(registry);
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Открывает подписку пользователя на изменения его бронирований (как владельца и как арендатора).
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseSubscriber subscriber = new SseSubscriber(userId, new SseEmitter(timeoutMs), queueCapacity, senders);
+        subscriber.onClose(() -> remove(subscriber));
+        subscribers.incrementAndGet();
+        subscribersByUser.compute(userId, (id, group) -> {
+            Set<SseSubscriber> result = group == null ? ConcurrentHashMap.newKeySet() : group;
+            result.add(subscriber);
+            return result;
+        });
+        return subscriber.getEmitter();
+    }
+
+    /**
+     * Рассылает событие, полученное от сервера, владельцу и арендатору.
+     * @param id идентификатор события на сервере
+     * @param name тип события
+     * @param data JSON события, передаётся клиентам без изменений
+     */
+    public void publish(String id, String name, String data) {
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(data);
+        } catch (JsonProcessingException e) {
+            log.warn("Некорректное событие бронирования от сервера: {}", data);
+            return;
+        }
+        long ownerId = event.path("ownerId").asLong();
+        long bookerId = event.path("bookerId").asLong();
+        Set<SseSubscriber> owners = subscribersByUser.get(ownerId);
+        Set<SseSubscriber> bookers = bookerId == ownerId ? null : subscribersByUser.get(bookerId);
+        if (owners == null && bookers == null) {
+            return;
+        }
+
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (id != null) {
+            builder.id(id);
+        }
+        if (name != null) {
+            builder.name(name);
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = builder.data(data).build();
+        deliver(owners, frame);
+        deliver(bookers, frame);
+        published.increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribersByUser.values().forEach(group -> group.forEach(SseSubscriber::close));
+        senders.shutdown();
+    }
+
+    private void deliver(Set<SseSubscriber> group, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (group == null) {
+            return;
+        }
+        for (SseSubscriber subscriber : group) {
+            if (!subscriber.isClosed() && !subscriber.offer(frame)) {
+                slowDisconnects.increment();
+            }
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+            subscribersByUser.values().forEach(group -> group.forEach(subscriber -> subscriber.offer(ping)));
+        } catch (RuntimeException e) {
+            log.warn("Ошибка отправки пинга подписчикам потока бронирований", e);
+        }
+    }
+
+    private void remove(SseSubscriber subscriber) {
+        subscribers.decrementAndGet();
+        subscribersByUser.computeIfPresent(subscriber.getUserId(), (id, group) -> {
+            group.remove(subscriber);
+            return group.isEmpty() ? null : group;
+        });
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+/**
+ * Единственная подписка шлюза на поток событий бронирований сервера (внутренний путь /internal/bookings/stream со всеми событиями).
+ * Читает события на виртуальном потоке и передаёт их в BookingEventHub. При обрыве переподключается
+ * с экспоненциальной задержкой; события, опубликованные во время разрыва, клиенты не получат —
+ * после переподключения они могут перечитать состояние через GET /bookings.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.stream.upstream.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingEventUpstream implements SmartLifecycle {
+    private static final long MAX_RECONNECT_MS = 30_000;
+
+    private final BookingEventHub hub;
+    private final URI uri;
+    private final long reconnectMs;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private volatile boolean running;
+    private Thread worker;
+
+    public BookingEventUpstream(BookingEventHub hub,
+                                @Value("${shareit-server.url}") String serverUrl,
+                                @Value("${shareit.stream.upstream.reconnect-ms:1000}") long reconnectMs) {
+        this.hub = hub;
+        this.uri = URI.create(serverUrl + "/internal/bookings/stream");
+        this.reconnectMs = reconnectMs;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofVirtual().name("booking-stream-upstream").start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        httpClient.shutdownNow();
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long delay = reconnectMs;
+        while (running) {
+            try {
+                if (connect()) {
+                    delay = reconnectMs;
+                }
+                log.info("Поток событий бронирований сервера закрыт, переподключение");
+            } catch (IOException e) {
+                log.warn("Нет подключения к потоку событий бронирований {}: {}", uri, e.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(delay * 2, MAX_RECONNECT_MS);
+        }
+    }
+
+    /**
+     * Читает поток до его закрытия. Возвращает true, если подключение удалось.
+     */
+    private boolean connect() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("статус ответа " + response.statusCode());
+        }
+        log.info("Подключён поток событий бронирований {}", uri);
+        EventParser parser = new EventParser();
+        try (Stream<String> lines = response.body()) {
+            lines.takeWhile(line -> running).forEach(parser::accept);
+        }
+        return true;
+    }
+
+    /**
+     * Разбор формата text/event-stream: поля id, event и data до пустой строки; комментарии (:ping) пропускаются.
+     */
+    private final class EventParser {
+        private String id;
+        private String name;
+        private StringBuilder data;
+
+        void accept(String line) {
+            if (line.isEmpty()) {
+                if (data != null) {
+                    hub.publish(id, name, data.toString());
+                }
+                id = null;
+                name = null;
+                data = null;
+                return;
+            }
+            if (line.startsWith(":")) {
+                return;
+            }
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            switch (field) {
+                case "id" -> id = value;
+                case "event" -> name = value;
+                case "data" -> data = data == null ? new StringBuilder(value) : data.append('\n').append(value);
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -1,34 +1,114 @@
 package ru.practicum.shareit.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.ratelimit.UpstreamConcurrencyLimiter;
+import ru.practicum.shareit.resilience.UpstreamResilience;
+import ru.practicum.shareit.tracing.Tracer;
+import ru.practicum.shareit.util.CustomHttpHeader;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Базовый клиент для взаимодействия с удалёнными сервисами через HTTP.
- * Предоставляет унифицированные методы для выполнения HTTP-запросов (GET, POST, PUT, PATCH, DELETE).
- * Автоматически добавляет необходимые заголовки (Content-Type, Accept, X-Sharer-User-Id).
+ * Предоставляет унифицированные методы для выполнения HTTP-запросов (GET, HEAD, POST, PUT, PATCH, DELETE).
+ * Автоматически добавляет необходимые заголовки (Content-Type, Accept, X-Sharer-User-Id, X-Trace-Id).
+ * If-None-Match клиента передаётся в GET-запросы к серверу, ответ 304 возвращается клиенту вместе с ETag.
+ * Кодирование тел на канале к серверу задаётся shareit-server.codec (smile по умолчанию или json); клиенты шлюза всегда получают JSON.
+ * Число одновременных запросов к серверу ограничено {@link UpstreamConcurrencyLimiter} (кроме потоковых).
+ * Запросы защищены {@link UpstreamResilience}: автомат защиты по группе (клиенту), повторы GET и HEAD,
+ * страхующие копии GET; недоступность сервера возвращается клиенту как 503, а не 500.
+ * Одинаковые одновременные GET объединяются {@link SingleFlight} в один запрос к серверу.
  */
 public class BaseClient {
     protected final RestTemplate rest; // Экземпляр RestTemplate для выполнения HTTP-запросов
+    private final String group; // Группа запросов для автомата защиты и метрик (users, items, ...)
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory()); // Разбор ошибок сервера в Smile
+    private Tracer tracer; // Трассировка запросов (отсутствует, если отключена)
+    private ServerCodec codec = ServerCodec.SMILE; // Кодирование тел на канале к серверу
+    private UpstreamConcurrencyLimiter concurrencyLimiter; // Общий лимит запросов к серверу (отсутствует, если отключён)
+    private UpstreamResilience resilience; // Автомат защиты, повторы и страхующие копии (отсутствуют, если отключены)
+    private SingleFlight singleFlight; // Объединение одинаковых одновременных GET (отсутствует, если отключено)
 
-
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, String group) {
         this.rest = rest;
+        this.group = group;
+    }
+
+    /**
+     * Фабрика запросов клиентов к серверу. Автоматические повторы HTTP-клиента отключены: по умолчанию он
+     * повторяет 503 с Retry-After и ошибки ввода-вывода сам, в обход {@link UpstreamResilience}
+     * (её бюджета повторов и правила не повторять сброс нагрузки сервером).
+     */
+    protected static ClientHttpRequestFactory requestFactory() {
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .useSystemProperties()
+                .disableAutomaticRetries()
+                .build());
+    }
+
+    @Autowired(required = false)
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Autowired(required = false)
+    public void setConcurrencyLimiter(UpstreamConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Autowired(required = false)
+    public void setResilience(UpstreamResilience resilience) {
+        this.resilience = resilience;
+    }
+
+    @Autowired(required = false)
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    @Value("${shareit-server.codec:smile}")
+    public void setCodec(String codec) {
+        this.codec = ServerCodec.valueOf(codec.trim().toUpperCase(Locale.ROOT));
     }
 
     /**
      * Обрабатывает ответ от удалённого сервиса.
-     * Если статус ответа — успешный (2xx), возвращает его как есть.
+     * Если статус ответа — успешный (2xx), возвращает его с заголовками сервера, кроме Content-Type,
+     * Content-Length и заголовков соединения: тело заново кодируется шлюзом в формат клиента (JSON),
+     * а не в формат канала к серверу.
+     * Ответ 304 (Not Modified) передаётся без тела, но с ETag сервера.
      * Иначе создаёт новый ResponseEntity с тем же статусом и телом (если есть).
      */
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            headers.remove(HttpHeaders.CONNECTION);
+            headers.remove("Keep-Alive");
+            return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+        }
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.getHeaders().getETag()).build();
         }
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
@@ -97,6 +177,13 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
+    /**
+     * Выполняет HEAD-запрос: только статус и заголовки ответа, без тела.
+     */
+    protected ResponseEntity<Object> head(String path) {
+        return makeAndSendRequest(HttpMethod.HEAD, path, null, null, null);
+    }
+
     protected ResponseEntity<Object> delete(String path) {
         return delete(path, null, null);
     }
@@ -109,6 +196,21 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Готовит GET-запрос, тело ответа которого копируется клиенту по мере получения, без буферизации целиком.
+     * Заголовки (пользователь, трасса) берутся в потоке обработки запроса, сам запрос выполняется при записи ответа.
+     * @param path URL-путь запроса
+     * @param accept Ожидаемый тип ответа (например, application/x-ndjson)
+     */
+    protected StreamingResponseBody stream(String path, MediaType accept) {
+        HttpHeaders headers = defaultHeaders(HttpMethod.GET, null);
+        headers.remove(HttpHeaders.CONTENT_TYPE);
+        headers.setAccept(List.of(accept));
+        return out -> rest.execute(path, HttpMethod.GET,
+                request -> request.getHeaders().putAll(headers),
+                response -> response.getBody().transferTo(out));
+    }
+
     /**
      * Формирует и отправляет HTTP-запрос через RestTemplate.
      * @param method HTTP-метод (GET, POST и т.д.)
@@ -125,7 +227,77 @@ public class BaseClient {
             @Nullable Map<String, Object> parameters,
             @Nullable T body) {
 
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId)); // Формируем запрос с телом и заголовками
+        if (singleFlight != null && method == HttpMethod.GET) {
+            // Дубликаты ждут уже идущий запрос и не занимают разрешений лимита одновременных запросов
+            SingleFlight.Key key = new SingleFlight.Key(group, path, parameters, userId,
+                    incomingHeader(HttpHeaders.IF_NONE_MATCH));
+            return singleFlight.execute(key, () -> limitAndExchange(method, path, userId, parameters, body));
+        }
+        return limitAndExchange(method, path, userId, parameters, body);
+    }
+
+    private <T> ResponseEntity<Object> limitAndExchange(
+            HttpMethod method,
+            String path,
+            Long userId,
+            @Nullable Map<String, Object> parameters,
+            @Nullable T body) {
+
+        if (concurrencyLimiter == null) {
+            return traceAndExchange(method, path, userId, parameters, body);
+        }
+        concurrencyLimiter.acquire(); // Без свободного разрешения — 429 (TooManyRequestsException)
+        try {
+            return traceAndExchange(method, path, userId, parameters, body);
+        } finally {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private <T> ResponseEntity<Object> traceAndExchange(
+            HttpMethod method,
+            String path,
+            Long userId,
+            @Nullable Map<String, Object> parameters,
+            @Nullable T body) {
+
+        if (tracer == null) {
+            return exchange(method, path, userId, parameters, body);
+        }
+        // Запрос к серверу — отдельный участок трассы gateway
+        try (Tracer.Scope scope = tracer.startSpan("upstream " + method + " " + path)) {
+            try {
+                return exchange(method, path, userId, parameters, body);
+            } catch (RuntimeException e) {
+                scope.error(e);
+                throw e;
+            }
+        }
+    }
+
+    private <T> ResponseEntity<Object> exchange(
+            HttpMethod method,
+            String path,
+            Long userId,
+            @Nullable Map<String, Object> parameters,
+            @Nullable T body) {
+
+        // Заголовки собираются здесь: страхующая копия GET выполняется в другом потоке, без контекста запроса
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(method, userId));
+        if (resilience == null) {
+            return send(method, path, parameters, requestEntity);
+        }
+        return resilience.execute(group, method, () -> send(method, path, parameters, requestEntity));
+    }
+
+    /**
+     * Отправляет запрос серверу; ответ с ошибкой (4xx, 5xx) возвращается, а не выбрасывается.
+     */
+    private <T> ResponseEntity<Object> send(
+            HttpMethod method,
+            String path,
+            @Nullable Map<String, Object> parameters,
+            HttpEntity<T> requestEntity) {
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -137,25 +309,69 @@ public class BaseClient {
                 shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
             }
         } catch (HttpStatusCodeException e) {
-            // Обрабатываем ошибки HTTP-статусов (4xx, 5xx)
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            // Обрабатываем ошибки HTTP-статусов (4xx, 5xx); Retry-After сервера (503 при перегрузке) передаём клиенту
+            ResponseEntity.BodyBuilder error = ResponseEntity.status(e.getStatusCode());
+            String retryAfter = e.getResponseHeaders() != null
+                    ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER)
+                    : null;
+            if (retryAfter != null) {
+                error.header(HttpHeaders.RETRY_AFTER, retryAfter);
+            }
+            return error.body(errorBody(e));
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    /**
+     * Тело ошибки сервера. Ответ в Smile декодируется, чтобы клиенту шлюза ушёл JSON, а не двоичные данные.
+     */
+    private Object errorBody(HttpStatusCodeException e) {
+        MediaType contentType = e.getResponseHeaders() != null ? e.getResponseHeaders().getContentType() : null;
+        if (contentType == null || !contentType.isCompatibleWith(ServerCodec.SMILE.getContentType())) {
+            return e.getResponseBodyAsByteArray();
+        }
+        try {
+            return SMILE_MAPPER.readValue(e.getResponseBodyAsByteArray(), Object.class);
+        } catch (IOException ex) {
+            return e.getResponseBodyAsByteArray();
+        }
+    }
+
     /**
      * Создаёт стандартные заголовки для запроса:
-     * - Content-Type: application/json
-     * - Accept: application/json
+     * - Content-Type: тип кодека (application/json или application/x-jackson-smile)
+     * - Accept: тип кодека и application/json
      * - X-Sharer-User-Id: {userId} (если указан)
+     * - X-Trace-Id: идентификатор текущей трассы (если трассировка включена)
+     * - If-None-Match: из входящего запроса (только для GET)
      */
-    private HttpHeaders defaultHeaders(Long userId) {
+    private HttpHeaders defaultHeaders(HttpMethod method, Long userId) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON); // Тип контента
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON)); // Ожидаемый тип ответа
+        headers.setContentType(codec.getContentType()); // Тип контента
+        headers.setAccept(codec.getAccept()); // Ожидаемый тип ответа
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId)); // Добавляем ID пользователя в заголовок
         }
+        String traceId = tracer != null ? tracer.currentTraceId() : null;
+        if (traceId != null) {
+            headers.set(CustomHttpHeader.TRACE_ID, traceId); // Продолжаем трассу на сервере
+        }
+        String ifNoneMatch = method == HttpMethod.GET ? incomingHeader(HttpHeaders.IF_NONE_MATCH) : null;
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch); // Сервер ответит 304, если версия не изменилась
+        }
         return headers;
     }
+
+    /**
+     * Заголовок текущего входящего запроса (null вне потока обработки запроса).
+     */
+    @Nullable
+    private static String incomingHeader(String name) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getHeader(name);
+        }
+        return null;
+    }
 }
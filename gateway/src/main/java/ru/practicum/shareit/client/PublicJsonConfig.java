@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Smile нужен шлюзу только для обмена с сервером (RestTemplate), поэтому из конвертеров
+ * Spring MVC он убирается: внешние клиенты всегда получают JSON.
+ */
+@Configuration
+public class PublicJsonConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(MappingJackson2SmileHttpMessageConverter.class::isInstance);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * Кодирование тел запросов и ответов на внутреннем канале шлюз → сервер (shareit-server.codec).
+ * SMILE — бинарный JSON: меньше байт и дешевле разбор; JSON остаётся запасным вариантом в Accept.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ServerCodec {
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType contentType;
+
+    /**
+     * Допустимые типы ответа: основной тип кодека, затем JSON.
+     */
+    public List<MediaType> getAccept() {
+        return this == JSON ? List.of(MediaType.APPLICATION_JSON) : List.of(contentType, MediaType.APPLICATION_JSON);
+    }
+}
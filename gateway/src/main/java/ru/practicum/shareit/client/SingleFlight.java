@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных GET-запросов к серверу (single-flight): пока запрос с тем же
+ * ключом выполняется, повторные не отправляются, а ждут его и получают тот же ответ (или то же исключение).
+ * Ответ не кэшируется: запрос, пришедший после завершения предыдущего, снова идёт на сервер.
+ * Тело ответа разделяется между запросами, поэтому изменять его нельзя — шлюз только сериализует его клиенту.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class SingleFlight {
+    private final MeterRegistry registry;
+    private final Map<Key, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalesced = new ConcurrentHashMap<>();
+
+    public SingleFlight(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("shareit.upstream.coalescing.in-flight", inFlight, Map::size)
+                .description("Различные GET-запросы к серверу, выполняющиеся сейчас")
+                .register(registry);
+    }
+
+    /**
+     * Выполняет call или присоединяется к уже выполняющемуся запросу с тем же ключом.
+     */
+    public ResponseEntity<Object> execute(Key key, Supplier<ResponseEntity<Object>> call) {
+        CompletableFuture<ResponseEntity<Object>> own = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = inFlight.putIfAbsent(key, own);
+        if (leader != null) {
+            coalesced.computeIfAbsent(key.group(), group -> Counter.builder("shareit.upstream.coalesced")
+                    .description("GET-запросы, получившие ответ уже выполнявшегося одинакового запроса")
+                    .tag("group", group)
+                    .register(registry)).increment();
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            ResponseEntity<Object> response = call.get();
+            own.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Ключ запроса: всё, от чего зависит ответ сервера. If-None-Match входит в ключ, потому что меняет ответ (304).
+     */
+    public record Key(String group, String path, @Nullable Map<String, Object> parameters, @Nullable Long userId,
+                      @Nullable String ifNoneMatch) {
+    }
+}
@@ -1,12 +1,17 @@
 package ru.practicum.shareit.error;
 
 import jakarta.validation.ValidationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.exception.UpstreamUnavailableException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -15,8 +20,12 @@ import java.util.Map;
  * Глобальный обработчик исключений для REST‑контроллеров.
  * Централизованно обрабатывает ошибки:
  * - валидации входных параметров;
- * - нарушений бизнес‑правил.
- * Возвращает структурированный ответ с кодом HTTP 400 (Bad Request).
+ * - нарушений бизнес‑правил;
+ * - запросов от несуществующих пользователей;
+ * - превышения ограничений частоты и одновременных запросов;
+ * - недоступности сервера.
+ * Возвращает структурированный ответ с кодом HTTP 400 (Bad Request), 404 (Not Found), 429 (Too Many Requests)
+ * или 503 (Service Unavailable).
  */
 @RestControllerAdvice
 public class ErrorHandler {
@@ -48,6 +57,35 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка валидации", description.toString());
     }
 
+    /**
+     * Запрос от пользователя, которого нет по данным кэша существования пользователей.
+     */
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(NotFoundException.class)
+    public ErrorResponse handleNotFound(NotFoundException e) {
+        return new ErrorResponse("Данные не найдены", e.getMessage());
+    }
+
+    /**
+     * Превышено ограничение частоты запросов клиента или одновременных запросов к серверу.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse("Слишком много запросов", e.getMessage()));
+    }
+
+    /**
+     * Сервер недоступен или автомат защиты разомкнут после череды сбоев.
+     */
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailable(UpstreamUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse("Сервис недоступен", e.getMessage()));
+    }
+
     /**
      * Обрабатывает общие исключения валидации (например, выброшенные вручную).
      */
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class NotFoundException extends RuntimeException {
+    public NotFoundException(String msg) {
+        super(msg);
+    }
+}
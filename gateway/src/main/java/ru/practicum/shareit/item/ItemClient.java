@@ -4,21 +4,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.RequestItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
 
 /**
  * Клиент для взаимодействия с микросервисом предметов (Items) через REST API.
  * Предоставляет методы для:
  * - создания и обновления предметов;
  * - получения информации о предметах (по ID, по владельцу, по поиску);
- * - добавления комментариев к предметам.
+ * - добавления комментариев к предметам;
+ * - получения календаря доступности.
  */
 @Service
 public class ItemClient extends BaseClient {
@@ -31,8 +36,8 @@ public class ItemClient extends BaseClient {
     public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+                .requestFactory(BaseClient::requestFactory)
+                .build(), "items");
     }
 
     /**
@@ -67,8 +72,21 @@ public class ItemClient extends BaseClient {
      * Ищет предметы по текстовому запросу (по названию или описанию).
      */
     public ResponseEntity<Object> findBySearch(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("?text={text}", null, parameters);
+        return findBySearch(text, null, null);
+    }
+
+    /**
+     * Ищет предметы по тексту, свободные в периоде [start, end) (если период задан).
+     */
+    public ResponseEntity<Object> findBySearch(String text, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        if (start == null) {
+            return get("/search?text={text}", null, parameters);
+        }
+        parameters.put("start", start);
+        parameters.put("end", end);
+        return get("/search?text={text}&start={start}&end={end}", null, parameters);
     }
 
     /**
@@ -77,4 +95,61 @@ public class ItemClient extends BaseClient {
     public ResponseEntity<Object> postComment(CreateCommentDto commentDto, Long itemId, Long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
+
+    /**
+     * Получает страницу комментариев предмета; cursor передаётся, только если задан.
+     */
+    public ResponseEntity<Object> findComments(Long itemId, Long cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        String query = "?size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query += "&cursor={cursor}";
+        }
+        return get("/" + itemId + "/comments" + query, null, parameters);
+    }
+
+    /**
+     * Получает календарь доступности предмета.
+     */
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                  boolean includeWaiting) {
+        Map<String, Object> parameters = new HashMap<>();
+        String query = availabilityQuery(parameters, from, to, includeWaiting);
+        return get("/" + itemId + "/availability" + query, null, parameters);
+    }
+
+    /**
+     * Получает календари доступности предметов владельца.
+     */
+    public ResponseEntity<Object> getOwnerAvailability(Long ownerId, List<Long> itemIds, LocalDateTime from,
+                                                       LocalDateTime to, boolean includeWaiting) {
+        Map<String, Object> parameters = new HashMap<>();
+        String query = availabilityQuery(parameters, from, to, includeWaiting);
+        if (itemIds != null && !itemIds.isEmpty()) {
+            parameters.put("itemIds", itemIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+            query += "&itemIds={itemIds}";
+        }
+        return get("/availability" + query, ownerId, parameters);
+    }
+
+    /**
+     * Формирует строку параметров календаря; from и to передаются, только если заданы.
+     */
+    private static String availabilityQuery(Map<String, Object> parameters, LocalDateTime from, LocalDateTime to,
+                                            boolean includeWaiting) {
+        StringJoiner query = new StringJoiner("&", "?", "");
+        parameters.put("includeWaiting", includeWaiting);
+        query.add("includeWaiting={includeWaiting}");
+        if (from != null) {
+            parameters.put("from", from);
+            query.add("from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            query.add("to={to}");
+        }
+        return query.toString();
+    }
 }
@@ -1,24 +1,33 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.BookingValidator;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.RequestItemDto;
 import ru.practicum.shareit.util.CustomHttpHeader;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Контроллер для обработки HTTP‑запросов, связанных с предметами (items).
  * Обеспечивает endpoints для:
  * - создания/обновления предметов;
  * - получения информации о предметах;
  * - поиска предметов;
- * - добавления комментариев.
+ * - добавления комментариев;
+ * - получения календаря доступности предметов.
  *
  */
 @Controller
@@ -27,6 +36,8 @@ import ru.practicum.shareit.util.CustomHttpHeader;
 @Slf4j
 @Validated
 public class ItemController {
+    private static final int MAX_COMMENTS_PAGE = 100; // Максимальный размер страницы комментариев
+
     private final ItemClient itemClient;
 
     /**
@@ -74,12 +85,23 @@ public class ItemController {
 
     /**
      * Ищет предметы по текстовому запросу (по названию или описанию).
+     * Если задан период start/end — только свободные в нём предметы.
      */
     @GetMapping("/search")
     public ResponseEntity<Object> findBySearch(
-            @RequestParam("text") String text) {
-        log.info("Get all items by search = {}", text);
-        return itemClient.findBySearch(text);
+            @RequestParam("text") String text,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Get all items by search = {}, start = {}, end = {}", text, start, end);
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Период поиска должен содержать и начало, и окончание");
+        }
+        if (start != null) {
+            BookingValidator.validateBookingTime(start, end);
+        }
+        return itemClient.findBySearch(text, start, end);
     }
 
     /**
@@ -93,4 +115,54 @@ public class ItemController {
         log.info("Post comment itemId = {}, userId = {}", itemId, userId);
         return itemClient.postComment(commentDto, itemId, userId);
     }
+
+    /**
+     * Получает страницу комментариев предмета, новые первыми.
+     * Курсор следующей страницы сервер передаёт в заголовке X-Next-Cursor.
+     */
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<Object> findComments(
+            @PositiveOrZero @PathVariable("itemId") Long itemId,
+            @Positive @RequestParam(name = "cursor", required = false) Long cursor,
+            @Positive @Max(MAX_COMMENTS_PAGE) @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        log.info("Find comments itemId = {}, cursor = {}, size = {}", itemId, cursor, size);
+        return itemClient.findComments(itemId, cursor, size);
+    }
+
+    /**
+     * Получает свободные и занятые интервалы предмета в окне [from, to).
+     */
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(
+            @PositiveOrZero @PathVariable("itemId") Long itemId,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "includeWaiting", defaultValue = "false") boolean includeWaiting) {
+        log.info("Get availability itemId = {}, from = {}, to = {}", itemId, from, to);
+        if (from != null && to != null) {
+            BookingValidator.validateBookingTime(from, to);
+        }
+        return itemClient.getAvailability(itemId, from, to, includeWaiting);
+    }
+
+    /**
+     * Получает календари доступности предметов владельца.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<Object> getOwnerAvailability(
+            @PositiveOrZero @RequestHeader(CustomHttpHeader.USER_ID) Long ownerId,
+            @RequestParam(name = "itemIds", required = false) List<@PositiveOrZero Long> itemIds,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "includeWaiting", defaultValue = "false") boolean includeWaiting) {
+        log.info("Get owner availability ownerId = {}, itemIds = {}", ownerId, itemIds);
+        if (from != null && to != null) {
+            BookingValidator.validateBookingTime(from, to);
+        }
+        return itemClient.getOwnerAvailability(ownerId, itemIds, from, to, includeWaiting);
+    }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.ratelimit;
+
+/**
+ * Класс эндпоинта для ограничения частоты: у каждого свои скорость и запас запросов.
+ */
+public enum EndpointClass {
+    SEARCH,  // Текстовый поиск (/items/search) — самый тяжёлый для БД
+    LISTING, // Остальные чтения: списки и отдельные объекты
+    WRITE;   // Создание, изменение и удаление
+
+    public static EndpointClass of(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        return path.endsWith("/search") ? SEARCH : LISTING;
+    }
+}
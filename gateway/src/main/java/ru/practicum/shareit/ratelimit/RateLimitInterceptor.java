@@ -0,0 +1,35 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверяет частоту запросов клиента до обработки в контроллере.
+ * Клиент — значение X-Sharer-User-Id, для запросов без него — адрес клиента.
+ */
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private final RateLimiter rateLimiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String userId = request.getHeader(CustomHttpHeader.USER_ID);
+        String client = userId != null ? "user:" + userId.trim() : "addr:" + request.getRemoteAddr();
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+
+        long waitNanos = rateLimiter.tryAcquire(client, endpointClass);
+        if (waitNanos > 0) {
+            // Retry-After задаётся в целых секундах: округляем вверх, не меньше 1
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            throw new TooManyRequestsException("Слишком много запросов, повторите через " + retryAfter + " с",
+                    retryAfter);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.BoundedMaps;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ограничение частоты запросов по клиенту (пользователю или адресу) и классу эндпоинта.
+ * Для каждой пары заводится своя {@link TokenBucket}. Число корзин ограничено max-buckets ({@link BoundedMaps});
+ * ненужными считаются полностью восстановившиеся корзины — новая для того же ключа будет в том же состоянии.
+ * Клиент удалённой неполной корзины получает свежую, то есть лишний запас burst.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter {
+    private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+    private final Map<Key, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+
+    public RateLimiter(ObjectProvider<MeterRegistry> meterRegistry,
+                       @Value("${shareit.ratelimit.search.per-second:5}") double searchPerSecond,
+                       @Value("${shareit.ratelimit.search.burst:10}") int searchBurst,
+                       @Value("${shareit.ratelimit.listing.per-second:20}") double listingPerSecond,
+                       @Value("${shareit.ratelimit.listing.burst:40}") int listingBurst,
+                       @Value("${shareit.ratelimit.write.per-second:5}") double writePerSecond,
+                       @Value("${shareit.ratelimit.write.burst:10}") int writeBurst,
+                       @Value("${shareit.ratelimit.max-buckets:100000}") int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+        limits.put(EndpointClass.SEARCH, new Limit(searchPerSecond, searchBurst));
+        limits.put(EndpointClass.LISTING, new Limit(listingPerSecond, listingBurst));
+        limits.put(EndpointClass.WRITE, new Limit(writePerSecond, writeBurst));
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        limits.forEach((endpointClass, limit) -> {
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("shareit.ratelimit.per-second", limit, Limit::perSecond)
+                    .description("Разрешённая частота запросов клиента")
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("shareit.ratelimit.burst", limit, Limit::burst)
+                    .description("Запас запросов клиента сверх частоты")
+                    .tag("class", tag)
+                    .register(registry);
+            rejected.put(endpointClass, Counter.builder("shareit.ratelimit.rejected")
+                    .description("Запросы, отклонённые ограничением частоты")
+                    .tag("class", tag)
+                    .register(registry));
+        });
+        Gauge.builder("shareit.ratelimit.buckets", buckets, Map::size)
+                .description("Корзины токенов в памяти")
+                .register(registry);
+    }
+
+    /**
+     * Берёт токен клиента для класса эндпоинта. Возвращает 0, если запрос разрешён,
+     * иначе — через сколько наносекунд появится следующий токен.
+     */
+    public long tryAcquire(String client, EndpointClass endpointClass) {
+        long now = System.nanoTime();
+        Key key = new Key(client, endpointClass);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            BoundedMaps.ensureCapacity(buckets, key, maxBuckets, candidate -> candidate.isFull(now));
+            Limit limit = limits.get(endpointClass);
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.perSecond(), limit.burst(), now));
+        }
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejected.get(endpointClass).increment();
+        }
+        return waitNanos;
+    }
+
+    private record Key(String client, EndpointClass endpointClass) {
+    }
+
+    private record Limit(double perSecond, int burst) {
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок, записанная как GCRA: вместо числа токенов хранится одно число —
+ * теоретическое время прихода следующего запроса (TAT). Каждый запрос сдвигает TAT на интервал между
+ * токенами; запрос пропускается, если TAT опережает текущее время не больше чем на запас корзины.
+ * Состояние меняется одним compareAndSet.
+ */
+public class TokenBucket {
+    private final long intervalNanos;  // Время восстановления одного токена
+    private final long toleranceNanos; // Сколько TAT может опережать текущее время (запас burst - 1 токенов)
+    private final AtomicLong tat;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000 / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Берёт токен. Возвращает 0, если запрос разрешён, иначе — сколько наносекунд ждать следующего токена.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            long start = current - nowNanos > 0 ? current : nowNanos;
+            long next = start + intervalNanos;
+            long ahead = next - nowNanos - intervalNanos;
+            if (ahead > toleranceNanos) {
+                return ahead - toleranceNanos;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * true, если корзина полностью восстановилась и её можно забыть: новая корзина будет в том же состоянии.
+     */
+    public boolean isFull(long nowNanos) {
+        return tat.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общее ограничение числа одновременных запросов шлюза к серверу (все клиенты вместе).
+ * Если разрешение не получено за acquire-timeout-ms, запрос отклоняется с 429 и Retry-After,
+ * а не ждёт в очереди, пока сервер разгребает уже отправленные.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class UpstreamConcurrencyLimiter {
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final long retryAfterSeconds;
+    private final Counter rejected;
+
+    public UpstreamConcurrencyLimiter(ObjectProvider<MeterRegistry> meterRegistry,
+                                      @Value("${shareit.upstream.max-concurrency:200}") int maxConcurrency,
+                                      @Value("${shareit.upstream.acquire-timeout-ms:50}") long acquireTimeoutMs,
+                                      @Value("${shareit.upstream.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("shareit.upstream.concurrency.limit", () -> maxConcurrency)
+                .description("Максимум одновременных запросов к серверу")
+                .register(registry);
+        Gauge.builder("shareit.upstream.concurrency.in-flight", permits, p -> maxConcurrency - p.availablePermits())
+                .description("Запросы к серверу, выполняющиеся сейчас")
+                .register(registry);
+        this.rejected = Counter.builder("shareit.upstream.concurrency.rejected")
+                .description("Запросы, отклонённые из-за исчерпания лимита одновременных запросов к серверу")
+                .register(registry);
+    }
+
+    /**
+     * Занимает разрешение на запрос к серверу; освобождать через {@link #release()}.
+     */
+    public void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new TooManyRequestsException("Сервер перегружен, повторите через " + retryAfterSeconds + " с",
+                    retryAfterSeconds);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+}
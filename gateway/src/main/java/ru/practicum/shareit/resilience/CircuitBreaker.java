@@ -0,0 +1,115 @@
+package ru.practicum.shareit.resilience;
+
+/**
+ * Автомат защиты для группы запросов к серверу (например, все запросы /items).
+ * В закрытом состоянии запоминает исходы последних window-size запросов; когда их набралось не меньше
+ * min-calls и доля неудачных достигла failure-rate, размыкается на open-ms: запросы группы сразу
+ * отклоняются, не нагружая сервер. Затем пропускает half-open-calls пробных запросов: если все удачны,
+ * замыкается с чистым окном, первая неудача снова размыкает его.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final boolean[] window; // Кольцо исходов: true — неудача
+    private final int minCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int recorded;  // Заполненная часть окна
+    private int next;      // Позиция следующей записи в окне
+    private int failures;  // Неудачи в окне
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(int windowSize, int minCalls, double failureRate, long openMs, int halfOpenCalls) {
+        this.window = new boolean[Math.max(windowSize, 1)];
+        this.minCalls = Math.min(Math.max(minCalls, 1), window.length);
+        this.failureRate = failureRate;
+        this.openNanos = openMs * 1_000_000;
+        this.halfOpenCalls = Math.max(halfOpenCalls, 1);
+    }
+
+    /**
+     * Разрешает запрос. В полуоткрытом состоянии разрешение — один из пробных запросов,
+     * его исход обязательно сообщается через {@link #onSuccess()} или {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquire(long nowNanos) {
+        if (state == State.OPEN) {
+            if (nowNanos - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                state = State.CLOSED;
+                recorded = 0;
+                next = 0;
+                failures = 0;
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long nowNanos) {
+        if (state == State.HALF_OPEN) {
+            open(nowNanos);
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minCalls && failures >= failureRate * recorded) {
+                open(nowNanos);
+            }
+        }
+    }
+
+    /**
+     * Через сколько наносекунд автомат начнёт пропускать пробные запросы (0, если уже пропускает).
+     */
+    public synchronized long remainingOpenNanos(long nowNanos) {
+        return state == State.OPEN ? Math.max(0, openNanos - (nowNanos - openedAt)) : 0;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length && window[next]) {
+            failures--;
+        } else if (recorded < window.length) {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open(long nowNanos) {
+        state = State.OPEN;
+        openedAt = nowNanos;
+    }
+}
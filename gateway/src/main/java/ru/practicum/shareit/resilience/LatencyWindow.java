@@ -0,0 +1,45 @@
+package ru.practicum.shareit.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Длительности последних удачных запросов группы и их 95-й перцентиль — задержка страхующей копии GET.
+ * Перцентиль пересчитывается сортировкой копии окна раз в RECOMPUTE_EVERY записей, а не на каждый запрос.
+ */
+public class LatencyWindow {
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final long[] samples;
+    private int recorded;
+    private int next;
+    private volatile long p95Nanos = -1;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[Math.max(size, RECOMPUTE_EVERY)];
+    }
+
+    public void record(long nanos) {
+        long[] snapshot = null;
+        synchronized (this) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            if (recorded < samples.length) {
+                recorded++;
+            }
+            if (next % RECOMPUTE_EVERY == 0) {
+                snapshot = Arrays.copyOf(samples, recorded);
+            }
+        }
+        if (snapshot != null) {
+            Arrays.sort(snapshot);
+            p95Nanos = snapshot[(int) Math.ceil(snapshot.length * 0.95) - 1];
+        }
+    }
+
+    /**
+     * 95-й перцентиль длительности или -1, если записей пока меньше RECOMPUTE_EVERY.
+     */
+    public long p95Nanos() {
+        return p95Nanos;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.resilience;
+
+/**
+ * Бюджет дополнительных запросов (повторов и страхующих копий): каждый исходный запрос пополняет его
+ * на ratio, каждый дополнительный тратит единицу. Так дополнительных запросов в среднем не больше
+ * ratio от исходных, и при сбое сервера повторы не умножают нагрузку на него.
+ * Запас max-tokens позволяет повторить редкие сбои сразу после старта или простоя.
+ */
+public class RetryBudget {
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    /**
+     * Учитывает исходный запрос.
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Тратит единицу бюджета на дополнительный запрос; false — бюджет исчерпан, запрос не делать.
+     */
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
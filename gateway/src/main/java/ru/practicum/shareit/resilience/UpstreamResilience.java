@@ -0,0 +1,281 @@
+package ru.practicum.shareit.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.UpstreamUnavailableException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Защита запросов шлюза к серверу. Для каждой группы (клиента: users, items, bookings, requests) —
+ * свой {@link CircuitBreaker}: при разомкнутом автомате запрос сразу завершается 503 с Retry-After.
+ * Неудачей считаются ошибки ввода-вывода и ответы 5xx, кроме 503 с Retry-After: так сервер сбрасывает
+ * лишнюю нагрузку, он работоспособен, и размыкать автомат из-за этого нельзя. Идемпотентные GET и HEAD после ошибки
+ * ввода-вывода, 502 или 504 повторяются до max-attempts раз с паузой со случайным разбросом
+ * (full jitter); 503 сервера — это сброс нагрузки, его не повторяем. Если включено, GET, не получивший
+ * ответа за 95-й перцентиль длительности группы, дублируется страхующей копией и берётся первый удачный
+ * ответ. Повторы и копии тратят общий {@link RetryBudget}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.resilience.enabled", havingValue = "true", matchIfMissing = true)
+public class UpstreamResilience {
+    private static final int LATENCY_WINDOW = 512;
+
+    private final MeterRegistry registry;
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+    private final RetryBudget budget;
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRate;
+    private final long openMs;
+    private final int halfOpenCalls;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final long hedgeMinDelayNanos;
+    private final long retryAfterSeconds;
+    private final ExecutorService hedgeExecutor; // null, если страхующие копии отключены
+
+    public UpstreamResilience(ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${shareit.resilience.breaker.window-size:20}") int windowSize,
+                              @Value("${shareit.resilience.breaker.min-calls:10}") int minCalls,
+                              @Value("${shareit.resilience.breaker.failure-rate:0.5}") double failureRate,
+                              @Value("${shareit.resilience.breaker.open-ms:5000}") long openMs,
+                              @Value("${shareit.resilience.breaker.half-open-calls:3}") int halfOpenCalls,
+                              @Value("${shareit.resilience.retry.max-attempts:3}") int maxAttempts,
+                              @Value("${shareit.resilience.retry.backoff-ms:50}") long backoffMs,
+                              @Value("${shareit.resilience.retry.max-backoff-ms:500}") long maxBackoffMs,
+                              @Value("${shareit.resilience.retry.budget-ratio:0.1}") double budgetRatio,
+                              @Value("${shareit.resilience.retry.budget-max:10}") double budgetMax,
+                              @Value("${shareit.resilience.hedge.enabled:false}") boolean hedgeEnabled,
+                              @Value("${shareit.resilience.hedge.min-delay-ms:20}") long hedgeMinDelayMs,
+                              @Value("${shareit.resilience.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.budget = new RetryBudget(budgetRatio, budgetMax);
+        this.windowSize = windowSize;
+        this.minCalls = minCalls;
+        this.failureRate = failureRate;
+        this.openMs = openMs;
+        this.halfOpenCalls = halfOpenCalls;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.hedgeMinDelayNanos = TimeUnit.MILLISECONDS.toNanos(hedgeMinDelayMs);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.hedgeExecutor = hedgeEnabled ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    /**
+     * Выполняет запрос группы с автоматом защиты, повторами и страхующей копией.
+     * call должен быть готов к вызову из другого потока (заголовки входящего запроса собраны заранее)
+     * и возвращать ответ сервера с любым статусом.
+     *
+     * @throws UpstreamUnavailableException автомат разомкнут или сервер недоступен
+     */
+    public ResponseEntity<Object> execute(String groupName, HttpMethod method, Supplier<ResponseEntity<Object>> call) {
+        Group group = groups.computeIfAbsent(groupName, this::newGroup);
+        boolean idempotent = method == HttpMethod.GET || method == HttpMethod.HEAD;
+        budget.deposit();
+        Attempt last = null;
+        for (int attempt = 1; ; attempt++) {
+            long now = System.nanoTime();
+            if (!group.breaker.tryAcquire(now)) {
+                if (last != null) {
+                    return result(last);
+                }
+                group.rejected.increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                        group.breaker.remainingOpenNanos(now) + TimeUnit.SECONDS.toNanos(1) - 1));
+                throw new UpstreamUnavailableException("Сервер временно недоступен, повторите через "
+                        + retryAfter + " с", retryAfter);
+            }
+            last = method == HttpMethod.GET && hedgeExecutor != null ? hedged(group, call) : run(group, call);
+            if (!last.failure || !idempotent || !last.retryable || attempt >= maxAttempts
+                    || !budget.tryWithdraw() || !pause(attempt)) {
+                return result(last);
+            }
+            group.retries.increment();
+            log.debug("Повтор {} запроса группы {} после сбоя: {}", attempt, groupName, last.describe());
+        }
+    }
+
+    /**
+     * Первая попытка, а если она не завершилась за перцентиль группы — ещё и страхующая копия.
+     */
+    private Attempt hedged(Group group, Supplier<ResponseEntity<Object>> call) {
+        long p95 = group.latency.p95Nanos();
+        if (p95 < 0) {
+            return run(group, call); // Длительности группы ещё не набраны
+        }
+        CompletableFuture<Attempt> primary = CompletableFuture.supplyAsync(() -> run(group, call), hedgeExecutor);
+        try {
+            return primary.get(Math.max(p95, hedgeMinDelayNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Ответа нет дольше обычного — пробуем страхующую копию
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return primary.join();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        if (!budget.tryWithdraw() || !group.breaker.tryAcquire(System.nanoTime())) {
+            return primary.join();
+        }
+        group.hedges.increment();
+        CompletableFuture<Attempt> hedge = CompletableFuture.supplyAsync(() -> run(group, call), hedgeExecutor);
+
+        // Первый удачный ответ; если обе попытки неудачны — последний из них
+        CompletableFuture<Attempt> first = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (CompletableFuture<Attempt> attempt : List.of(primary, hedge)) {
+            attempt.thenAccept(result -> {
+                if (!result.failure || pending.decrementAndGet() == 0) {
+                    first.complete(result);
+                }
+            });
+        }
+        Attempt result = first.join();
+        if (hedge.getNow(null) == result) {
+            group.hedgesWon.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Одна попытка: исход сообщается автомату защиты, длительность удачной — окну перцентиля
+     * (кроме сброса нагрузки: быстрый отказ занизил бы перцентиль).
+     */
+    private Attempt run(Group group, Supplier<ResponseEntity<Object>> call) {
+        long start = System.nanoTime();
+        Attempt attempt;
+        try {
+            attempt = Attempt.of(call.get());
+        } catch (RuntimeException e) {
+            attempt = Attempt.of(e);
+        }
+        if (attempt.failure) {
+            group.failures.increment();
+            group.breaker.onFailure(System.nanoTime());
+        } else {
+            group.breaker.onSuccess();
+            if (!attempt.shed) {
+                group.latency.record(System.nanoTime() - start);
+            }
+        }
+        return attempt;
+    }
+
+    /**
+     * Пауза перед повтором: случайная от 0 до backoff-ms·2^(attempt-1), но не больше max-backoff-ms.
+     * false — поток прерван, повторять не нужно.
+     */
+    private boolean pause(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Group newGroup(String name) {
+        Group group = new Group(new CircuitBreaker(windowSize, minCalls, failureRate, openMs, halfOpenCalls),
+                new LatencyWindow(LATENCY_WINDOW),
+                counter("shareit.upstream.breaker.rejected", "Запросы, отклонённые разомкнутым автоматом", name),
+                counter("shareit.upstream.failures", "Ошибки ввода-вывода и ответы 5xx сервера, кроме сброса нагрузки", name),
+                counter("shareit.upstream.retries", "Повторы идемпотентных запросов", name),
+                counter("shareit.upstream.hedges", "Страхующие копии GET", name),
+                counter("shareit.upstream.hedges.won", "Страхующие копии, ответившие первыми", name));
+        Gauge.builder("shareit.upstream.breaker.state", group.breaker, breaker -> breaker.getState().ordinal())
+                .description("Состояние автомата защиты: 0 — замкнут, 1 — пробные запросы, 2 — разомкнут")
+                .tag("group", name)
+                .register(registry);
+        Gauge.builder("shareit.upstream.latency.p95", group.latency,
+                        latency -> latency.p95Nanos() < 0 ? Double.NaN : latency.p95Nanos() / 1_000_000.0)
+                .description("95-й перцентиль длительности удачных запросов к серверу, мс")
+                .tag("group", name)
+                .register(registry);
+        return group;
+    }
+
+    private Counter counter(String name, String description, String group) {
+        return Counter.builder(name).description(description).tag("group", group).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Ответ попытки или исключение: ошибка ввода-вывода превращается в 503 шлюза, а не в 500.
+     */
+    private ResponseEntity<Object> result(Attempt attempt) {
+        if (attempt.response != null) {
+            return attempt.response;
+        }
+        if (attempt.error instanceof ResourceAccessException) {
+            throw new UpstreamUnavailableException("Сервер недоступен: " + attempt.error.getMessage(),
+                    retryAfterSeconds);
+        }
+        throw attempt.error;
+    }
+
+    private record Group(CircuitBreaker breaker, LatencyWindow latency, Counter rejected, Counter failures,
+                         Counter retries, Counter hedges, Counter hedgesWon) {
+    }
+
+    /**
+     * Исход попытки: ответ сервера или исключение. failure — сбой сервера (учитывается автоматом),
+     * retryable — сбой, который имеет смысл повторить, shed — сервер сбросил нагрузку (503 с Retry-After).
+     */
+    private record Attempt(ResponseEntity<Object> response, RuntimeException error, boolean failure,
+                           boolean retryable, boolean shed) {
+        static Attempt of(ResponseEntity<Object> response) {
+            int status = response.getStatusCode().value();
+            boolean shed = status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                    && response.getHeaders().containsKey(HttpHeaders.RETRY_AFTER);
+            return new Attempt(response, null, status >= 500 && !shed,
+                    status == HttpStatus.BAD_GATEWAY.value() || status == HttpStatus.GATEWAY_TIMEOUT.value(), shed);
+        }
+
+        static Attempt of(RuntimeException error) {
+            // Ошибка ввода-вывода (отказ в соединении, тайм-аут) — сбой сервера; прочие — ошибки разбора ответа
+            boolean io = error instanceof ResourceAccessException;
+            return new Attempt(null, error, io, io, false);
+        }
+
+        String describe() {
+            return response != null ? "статус " + response.getStatusCode().value() : error.getMessage();
+        }
+    }
+}
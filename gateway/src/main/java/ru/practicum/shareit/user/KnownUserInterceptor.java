@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.UpstreamUnavailableException;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+/**
+ * Отклоняет в шлюзе запросы от несуществующих пользователей (X-Sharer-User-Id), не передавая их серверу.
+ * Неизвестный кэшу пользователь проверяется запросом HEAD /users/{id}; если сервер не ответил
+ * 200 или 404 (в том числе сервер недоступен), запрос пропускается как есть.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class KnownUserInterceptor implements HandlerInterceptor {
+    private final UserExistenceCache cache;
+    private final UserClient userClient;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long userId = parseUserId(request.getHeader(CustomHttpHeader.USER_ID));
+        if (userId == null) {
+            return true; // Заголовка нет или он некорректен — это проверит контроллер
+        }
+        Boolean exists = cache.exists(userId);
+        if (exists == null) {
+            exists = resolve(userId);
+        }
+        if (Boolean.FALSE.equals(exists)) {
+            log.debug("Запрос от несуществующего пользователя {} отклонён шлюзом", userId);
+            throw new NotFoundException("Пользователь с id " + userId + " не найден");
+        }
+        return true;
+    }
+
+    @Nullable
+    private Boolean resolve(long userId) {
+        ResponseEntity<Object> response;
+        try {
+            response = userClient.exists(userId);
+        } catch (RestClientException | UpstreamUnavailableException e) {
+            log.debug("Не удалось проверить пользователя {}: {}", userId, e.getMessage());
+            return null;
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.put(userId, true);
+            return true;
+        }
+        if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+            cache.put(userId, false);
+            return false;
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Long parseUserId(@Nullable String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -4,20 +4,23 @@ import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.dto.UserUpdateRequestDto;
 
+import java.util.Map;
+
 /**
  * Клиент для взаимодействия с API пользователей (users).
  * Обеспечивает отправку HTTP‑запросов к серверу для:
  * - создания новых пользователей;
  * - обновления существующих пользователей;
- * - получения списка всех пользователей;
+ * - постраничного получения списка пользователей и потоковой выгрузки всех пользователей;
  * - получения конкретного пользователя по ID;
  * - удаления пользователя по ID.
  */
@@ -32,8 +35,8 @@ public class UserClient extends BaseClient {
     public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build());
+                .requestFactory(BaseClient::requestFactory)
+                .build(), "users");
     }
 
     /**
@@ -51,10 +54,21 @@ public class UserClient extends BaseClient {
     }
 
     /**
-     * Получает список всех пользователей.
+     * Получает страницу пользователей с id больше afterId (X-Next-Cursor сервера передаётся клиенту).
+     */
+    public ResponseEntity<Object> findAll(Long afterId, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "afterId", afterId,
+                "size", size
+        );
+        return get("?afterId={afterId}&size={size}", null, parameters);
+    }
+
+    /**
+     * Потоковая выгрузка всех пользователей в NDJSON: строки сервера передаются клиенту по мере получения.
      */
-    public ResponseEntity<Object> findAll() {
-        return get("");
+    public StreamingResponseBody export() {
+        return stream("/export", MediaType.APPLICATION_NDJSON);
     }
 
     /**
@@ -64,6 +78,13 @@ public class UserClient extends BaseClient {
         return get("/" + id);
     }
 
+    /**
+     * Проверяет существование пользователя (HEAD): 200 — есть, 404 — нет.
+     */
+    public ResponseEntity<Object> exists(Long id) {
+        return head("/" + id);
+    }
+
     /**
      * Удаляет пользователя по его ID.
      */
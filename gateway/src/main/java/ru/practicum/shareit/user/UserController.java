@@ -1,22 +1,29 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.dto.UserUpdateRequestDto;
 
+import java.util.Map;
+
 /**
  * Контроллер для обработки HTTP‑запросов, связанных с пользователями (users).
  * Обеспечивает endpoints для:
  * - создания новых пользователей;
  * - обновления существующих пользователей;
- * - получения списка всех пользователей;
+ * - постраничного получения списка пользователей и потоковой выгрузки всех пользователей;
  * - получения конкретного пользователя по ID;
  * - удаления пользователя по ID.
  */
@@ -26,7 +33,10 @@ import ru.practicum.shareit.user.dto.UserUpdateRequestDto;
 @Slf4j
 @Validated
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 1000; // Максимальный размер страницы списка пользователей
+
     private final UserClient userClient;
+    private final UserExistenceCache existenceCache;
 
     /**
      * Создаёт нового пользователя.
@@ -34,7 +44,14 @@ public class UserController {
     @PostMapping
     public ResponseEntity<Object> create(@Valid @RequestBody UserRequestDto user) {
         log.info("Create user: email={}, name={}", user.getEmail(), user.getName());
-        return userClient.create(user);
+        ResponseEntity<Object> response = userClient.create(user);
+        // Новый id мог попасть в кэш как несуществующий, если с ним уже приходили запросы
+        if (response.getStatusCode().is2xxSuccessful()
+                && response.getBody() instanceof Map<?, ?> body
+                && body.get("id") instanceof Number id) {
+            existenceCache.put(id.longValue(), true);
+        }
+        return response;
     }
 
     /**
@@ -49,12 +66,24 @@ public class UserController {
     }
 
     /**
-     * Получает список всех пользователей.
+     * Получает страницу пользователей с id больше afterId.
+     * Если есть следующая страница, её afterId передаётся в заголовке X-Next-Cursor.
      */
     @GetMapping
-    public ResponseEntity<Object> findAll() {
-        log.info("Find all users");
-        return userClient.findAll();
+    public ResponseEntity<Object> findAll(
+            @PositiveOrZero @RequestParam(name = "afterId", defaultValue = "0") Long afterId,
+            @Positive @Max(MAX_PAGE_SIZE) @RequestParam(name = "size", defaultValue = "100") Integer size) {
+        log.info("Find users after id {}, size {}", afterId, size);
+        return userClient.findAll(afterId, size);
+    }
+
+    /**
+     * Выгружает всех пользователей в NDJSON (по объекту на строку) потоком, без буферизации в шлюзе.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        log.info("Export all users");
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(userClient.export());
     }
 
     /**
@@ -63,7 +92,9 @@ public class UserController {
     @GetMapping("/{id}")
     public ResponseEntity<Object> findById(@PositiveOrZero @PathVariable("id") Long id) {
         log.info("Find user by id {}", id);
-        return userClient.findById(id);
+        ResponseEntity<Object> response = userClient.findById(id);
+        rememberExistence(id, response);
+        return response;
     }
 
     /**
@@ -72,6 +103,23 @@ public class UserController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteById(@PositiveOrZero @PathVariable("id") Long id) {
         log.info("Delete user by id {}", id);
-        return userClient.deleteById(id);
+        ResponseEntity<Object> response = userClient.deleteById(id);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            existenceCache.put(id, false);
+        } else {
+            rememberExistence(id, response);
+        }
+        return response;
+    }
+
+    /**
+     * Запоминает в кэше существования ответ сервера о пользователе: 2xx — есть, 404 — нет.
+     */
+    private void rememberExistence(Long id, ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            existenceCache.put(id, true);
+        } else if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+            existenceCache.put(id, false);
+        }
     }
 }
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.util.BoundedMaps;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш существования пользователей по id: положительные и отрицательные записи со своими сроками жизни.
+ * Отрицательные живут недолго: id, которого нет сейчас, может появиться при регистрации через другой шлюз.
+ * Размер ограничен maxEntries ({@link BoundedMaps}; ненужными считаются просроченные записи).
+ */
+@Component
+public class UserExistenceCache {
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+
+    public UserExistenceCache(@Value("${shareit.users.existence-cache.max-entries:100000}") int maxEntries,
+                              @Value("${shareit.users.existence-cache.positive-ttl-ms:600000}") long positiveTtlMs,
+                              @Value("${shareit.users.existence-cache.negative-ttl-ms:60000}") long negativeTtlMs) {
+        this.maxEntries = maxEntries;
+        this.positiveTtlNanos = positiveTtlMs * 1_000_000;
+        this.negativeTtlNanos = negativeTtlMs * 1_000_000;
+    }
+
+    /**
+     * true — пользователь существует, false — его нет, null — неизвестно (нет записи или она просрочена).
+     */
+    @Nullable
+    public Boolean exists(long userId) {
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(userId, entry);
+            return null;
+        }
+        return entry.exists();
+    }
+
+    public void put(long userId, boolean exists) {
+        long now = System.nanoTime();
+        BoundedMaps.ensureCapacity(entries, userId, maxEntries, entry -> entry.isExpired(now));
+        long ttl = exists ? positiveTtlNanos : negativeTtlNanos;
+        entries.put(userId, new Entry(exists, now + ttl));
+    }
+
+    private record Entry(boolean exists, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Подключает проверку X-Sharer-User-Id по кэшу существования пользователей ко всем запросам,
+ * кроме /users/** (там заголовок не используется).
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.users.existence-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class UserExistenceConfig implements WebMvcConfigurer {
+    private final UserExistenceCache cache;
+    private final UserClient userClient;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new KnownUserInterceptor(cache, userClient))
+                .excludePathPatterns("/users", "/users/**")
+                .order(1); // После ограничения частоты: проверка может обратиться к серверу
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+
+/**
+ * Реестр метрик в том виде, в каком его получают компоненты: тестам, создающим их без контекста Spring.
+ */
+public final class TestMeterRegistries {
+
+    private TestMeterRegistries() {
+    }
+
+    public static ObjectProvider<MeterRegistry> provider(MeterRegistry registry) {
+        return new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class);
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.TestMeterRegistries;
+import ru.practicum.shareit.client.StubServer.Reply;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SingleFlightTest {
+    private static final int CALLERS = 8;
+    private static final long SLOW_MS = 500;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private StubServer server;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = new StubServer();
+        server.script("/items/1", Reply.status(200).delayed(SLOW_MS));
+    }
+
+    @AfterEach
+    public void stopServer() {
+        callers.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void concurrentCallersShouldShareOneUpstreamResponse() throws Exception {
+        StubClient client = client(Duration.ofSeconds(5));
+
+        List<Object> results = runConcurrently(CALLERS, caller -> () -> client.fetch("/items/1", 1L));
+
+        assertThat(server.calls("/items/1"), equalTo(1));
+        ResponseEntity<?> first = (ResponseEntity<?>) results.getFirst();
+        assertThat(first.getStatusCode().value(), equalTo(200));
+        for (Object result : results) {
+            assertThat(((ResponseEntity<?>) result).getBody(), sameInstance(first.getBody()));
+        }
+        assertThat(registry.get("shareit.upstream.coalesced").counter().count(), equalTo(CALLERS - 1.0));
+
+        // Запрос после завершения предыдущего снова идёт на сервер: ответ не кэшируется
+        client.fetch("/items/1", 1L);
+        assertThat(server.calls("/items/1"), equalTo(2));
+    }
+
+    @Test
+    public void concurrentCallersShouldShareOneUpstreamException() throws Exception {
+        StubClient client = client(Duration.ofMillis(200)); // Ответ заглушки не успевает — ошибка ввода-вывода
+
+        List<Object> results = runConcurrently(CALLERS, caller -> () -> client.fetch("/items/1", 1L));
+
+        assertThat(server.calls("/items/1"), equalTo(1));
+        assertThat(results.getFirst(), instanceOf(ResourceAccessException.class));
+        for (Object result : results) {
+            assertThat(result, sameInstance(results.getFirst()));
+        }
+    }
+
+    @Test
+    public void requestsOfDifferentUsersShouldNotBeCoalesced() throws Exception {
+        StubClient client = client(Duration.ofSeconds(5));
+
+        runConcurrently(2, caller -> () -> client.fetch("/items/1", caller + 1L));
+
+        assertThat(server.calls("/items/1"), equalTo(2));
+    }
+
+    @Test
+    public void requestsWithDifferentIfNoneMatchShouldNotBeCoalesced() throws Exception {
+        StubClient client = client(Duration.ofSeconds(5));
+
+        runConcurrently(2, caller -> () -> {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            if (caller == 1) {
+                request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+            }
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            try {
+                return client.fetch("/items/1", 1L);
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+
+        assertThat(server.calls("/items/1"), equalTo(2));
+    }
+
+    private StubClient client(Duration responseTimeout) {
+        StubClient client = new StubClient(server.url(), responseTimeout);
+        client.setSingleFlight(new SingleFlight(TestMeterRegistries.provider(registry)));
+        return client;
+    }
+
+    /**
+     * Запускает вызовы одновременно и возвращает их результаты: ответ или выброшенное исключение.
+     */
+    private List<Object> runConcurrently(int count, CallFactory calls) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Supplier<ResponseEntity<Object>> call = calls.call(i);
+            futures.add(callers.submit(() -> {
+                start.await();
+                try {
+                    return call.get();
+                } catch (RuntimeException e) {
+                    return e;
+                }
+            }));
+        }
+        start.countDown();
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get(5, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private interface CallFactory {
+        Supplier<ResponseEntity<Object>> call(int caller);
+    }
+}
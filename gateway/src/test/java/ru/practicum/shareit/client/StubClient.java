@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Клиент группы items к {@link StubServer}: открывает тестам защищённые методы {@link BaseClient}.
+ * HTTP-клиент настроен как в {@link BaseClient#requestFactory()}, но с тайм-аутом ответа,
+ * чтобы задержанный ответ заглушки превращался в ошибку ввода-вывода.
+ */
+public class StubClient extends BaseClient {
+
+    public StubClient(String serverUrl, Duration responseTimeout) {
+        super(new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                        .disableAutomaticRetries()
+                        .setDefaultRequestConfig(RequestConfig.custom()
+                                .setResponseTimeout(Timeout.of(responseTimeout))
+                                .build())
+                        .build()))
+                .build(), "items");
+    }
+
+    public ResponseEntity<Object> fetch(String path, long userId) {
+        return get(path, userId);
+    }
+
+    public ResponseEntity<Object> create(String path, long userId) {
+        return post(path, userId, Map.of("name", "Дрель"));
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP-заглушка сервера ShareIt для тестов клиентов шлюза. На каждый путь отвечает по сценарию:
+ * n-й запрос получает n-й ответ, последний ответ повторяется. Тело ответа — JSON с номером запроса,
+ * чтобы тесты могли отличить ответы друг от друга.
+ */
+public class StubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, List<Reply>> scripts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    public StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void script(String path, Reply... replies) {
+        scripts.put(path, List.of(replies));
+    }
+
+    /**
+     * Число запросов к пути (любым методом).
+     */
+    public int calls(String path) {
+        AtomicInteger count = calls.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow(); // Прерывает ответы, задержанные дольше теста
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        int call = calls.computeIfAbsent(path, key -> new AtomicInteger()).getAndIncrement();
+        List<Reply> replies = scripts.getOrDefault(path, List.of(Reply.status(200)));
+        Reply reply = replies.get(Math.min(call, replies.size() - 1));
+        try (exchange) {
+            if (reply.delayMs() > 0) {
+                Thread.sleep(reply.delayMs());
+            }
+            byte[] body = ("{\"status\":" + reply.status() + ",\"call\":" + call + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            reply.headers().forEach(exchange.getResponseHeaders()::set);
+            exchange.sendResponseHeaders(reply.status(), body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Заглушка остановлена
+        }
+    }
+
+    /**
+     * Ответ заглушки: статус, задержка перед ответом и дополнительные заголовки.
+     */
+    public record Reply(int status, long delayMs, Map<String, String> headers) {
+        public static Reply status(int status) {
+            return new Reply(status, 0, Map.of());
+        }
+
+        public Reply delayed(long delayMs) {
+            return new Reply(status, delayMs, headers);
+        }
+
+        public Reply header(String name, String value) {
+            Map<String, String> withHeader = new LinkedHashMap<>(headers);
+            withHeader.put(name, value);
+            return new Reply(status, delayMs, withHeader);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.TestMeterRegistries;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RateLimiterTest {
+    private static final long MS = 1_000_000;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void bucketShouldAllowBurstThenOneRequestPerInterval() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0); // Токен раз в 100 мс, запас 3
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(0), equalTo(0L));
+        }
+        assertThat(bucket.tryAcquire(0), equalTo(100 * MS));
+        assertThat(bucket.tryAcquire(60 * MS), equalTo(40 * MS));
+
+        assertThat(bucket.tryAcquire(100 * MS), equalTo(0L));
+        assertThat(bucket.tryAcquire(100 * MS), equalTo(100 * MS));
+        assertThat(bucket.tryAcquire(200 * MS), equalTo(0L));
+    }
+
+    @Test
+    public void bucketShouldRefillToBurstAndNoFurther() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+        assertThat(bucket.isFull(250 * MS), equalTo(false));
+        assertThat(bucket.isFull(300 * MS), equalTo(true));
+
+        // После долгого простоя доступен только запас burst, а не всё накопленное время
+        long later = 10_000 * MS;
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(later), equalTo(0L));
+        }
+        assertThat(bucket.tryAcquire(later), greaterThan(0L));
+    }
+
+    @Test
+    public void limiterShouldKeepSeparateBucketsPerClientAndClass() {
+        RateLimiter limiter = limiter(1000);
+
+        assertThat(limiter.tryAcquire("user:1", EndpointClass.WRITE), equalTo(0L));
+        assertThat(limiter.tryAcquire("user:1", EndpointClass.WRITE), greaterThan(0L));
+        assertThat(limiter.tryAcquire("user:2", EndpointClass.WRITE), equalTo(0L));
+        assertThat(limiter.tryAcquire("user:1", EndpointClass.LISTING), equalTo(0L));
+        assertThat(registry.get("shareit.ratelimit.rejected").tag("class", "write").counter().count(),
+                equalTo(1.0));
+    }
+
+    @Test
+    public void limiterShouldCapBuckets() {
+        RateLimiter limiter = limiter(10);
+
+        for (int client = 0; client < 100; client++) {
+            limiter.tryAcquire("user:" + client, EndpointClass.WRITE); // Корзины не восстанавливаются за тест
+        }
+
+        assertThat(registry.get("shareit.ratelimit.buckets").gauge().value(), lessThanOrEqualTo(10.0));
+        assertThat(limiter.tryAcquire("user:99", EndpointClass.WRITE), greaterThan(0L));
+    }
+
+    @Test
+    public void interceptorShouldRoundRetryAfterUpToWholeSeconds() {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(limiter(1000));
+        MockHttpServletRequest write = request("POST", "/items", "1"); // 0.4 в секунду: токен раз в 2.5 с
+        MockHttpServletRequest listing = request("GET", "/items", "1");  // 10 в секунду: токен раз в 100 мс
+
+        interceptor.preHandle(write, new MockHttpServletResponse(), new Object());
+        TooManyRequestsException slow = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(write, new MockHttpServletResponse(), new Object()));
+        assertThat(slow.getRetryAfterSeconds(), equalTo(3L));
+
+        interceptor.preHandle(listing, new MockHttpServletResponse(), new Object());
+        TooManyRequestsException fast = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(listing, new MockHttpServletResponse(), new Object()));
+        assertThat(fast.getRetryAfterSeconds(), equalTo(1L));
+
+        // Без X-Sharer-User-Id клиент — адрес, у него своя корзина
+        MockHttpServletRequest anonymous = request("POST", "/users", null);
+        interceptor.preHandle(anonymous, new MockHttpServletResponse(), new Object());
+    }
+
+    private RateLimiter limiter(int maxBuckets) {
+        return new RateLimiter(TestMeterRegistries.provider(registry), 1, 1, 10, 1, 0.4, 1, maxBuckets);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (userId != null) {
+            request.addHeader(CustomHttpHeader.USER_ID, userId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.TestMeterRegistries;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UpstreamConcurrencyLimiterTest {
+    private static final long ACQUIRE_TIMEOUT_MS = 100;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void shouldRejectAfterAcquireTimeoutWhenAllPermitsAreTaken() {
+        UpstreamConcurrencyLimiter limiter = limiter(2);
+        limiter.acquire();
+        limiter.acquire();
+        assertThat(registry.get("shareit.upstream.concurrency.in-flight").gauge().value(), equalTo(2.0));
+
+        long start = System.nanoTime();
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class, limiter::acquire);
+        long waitedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(waitedMs, greaterThanOrEqualTo(ACQUIRE_TIMEOUT_MS));
+        assertThat(rejected.getRetryAfterSeconds(), equalTo(3L));
+        assertThat(registry.get("shareit.upstream.concurrency.rejected").counter().count(), equalTo(1.0));
+
+        limiter.release();
+        limiter.acquire();
+        assertThat(registry.get("shareit.upstream.concurrency.in-flight").gauge().value(), equalTo(2.0));
+    }
+
+    @Test
+    public void shouldGrantPermitReleasedWhileWaiting() throws Exception {
+        UpstreamConcurrencyLimiter limiter = limiter(1);
+        limiter.acquire();
+        Thread releaser = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(ACQUIRE_TIMEOUT_MS / 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.release();
+        });
+
+        limiter.acquire(); // Разрешение освободилось раньше тайм-аута — запрос не отклонён
+        releaser.join();
+        assertThat(registry.get("shareit.upstream.concurrency.rejected").counter().count(), equalTo(0.0));
+    }
+
+    private UpstreamConcurrencyLimiter limiter(int maxConcurrency) {
+        return new UpstreamConcurrencyLimiter(TestMeterRegistries.provider(registry), maxConcurrency, ACQUIRE_TIMEOUT_MS, 3);
+    }
+}
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.TestMeterRegistries;
+import ru.practicum.shareit.client.StubClient;
+import ru.practicum.shareit.client.StubServer;
+import ru.practicum.shareit.client.StubServer.Reply;
+import ru.practicum.shareit.exception.UpstreamUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class UpstreamResilienceTest {
+    private static final long USER_ID = 1L;
+    private static final long OPEN_MS = 300;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private StubServer server;
+    private UpstreamResilience resilience;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = new StubServer();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.close();
+        if (resilience != null) {
+            resilience.shutdown();
+        }
+    }
+
+    @Test
+    public void breakerShouldOpenOnFailuresAndCloseAfterHalfOpenTrials() throws Exception {
+        StubClient client = client(4, 1, false, Duration.ofSeconds(5));
+        server.script("/items/1", Reply.status(500), Reply.status(500), Reply.status(500), Reply.status(500),
+                Reply.status(500), Reply.status(200));
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(client.fetch("/items/1", USER_ID).getStatusCode().value(), equalTo(500));
+        }
+        UpstreamUnavailableException rejected = assertThrows(UpstreamUnavailableException.class,
+                () -> client.fetch("/items/1", USER_ID));
+        assertThat(rejected.getRetryAfterSeconds(), equalTo(1L));
+        assertThat(server.calls("/items/1"), equalTo(4));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.OPEN));
+
+        // Неудачный пробный запрос снова размыкает автомат
+        Thread.sleep(OPEN_MS + 50);
+        assertThat(client.fetch("/items/1", USER_ID).getStatusCode().value(), equalTo(500));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.OPEN));
+        assertThrows(UpstreamUnavailableException.class, () -> client.fetch("/items/1", USER_ID));
+
+        // Два удачных пробных запроса замыкают его
+        Thread.sleep(OPEN_MS + 50);
+        assertThat(client.fetch("/items/1", USER_ID).getStatusCode().value(), equalTo(200));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.HALF_OPEN));
+        assertThat(client.fetch("/items/1", USER_ID).getStatusCode().value(), equalTo(200));
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(server.calls("/items/1"), equalTo(7));
+        assertThat(registry.get("shareit.upstream.breaker.rejected").counter().count(), equalTo(2.0));
+    }
+
+    @Test
+    public void loadSheddingShouldNotOpenBreaker() {
+        StubClient client = client(4, 3, false, Duration.ofSeconds(5));
+        server.script("/items/1", Reply.status(503).header(HttpHeaders.RETRY_AFTER, "1"));
+
+        for (int i = 0; i < 6; i++) {
+            ResponseEntity<Object> response = client.fetch("/items/1", USER_ID);
+            assertThat(response.getStatusCode().value(), equalTo(503));
+            assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), equalTo("1"));
+        }
+
+        assertThat(server.calls("/items/1"), equalTo(6)); // Сброс нагрузки не повторяется
+        assertThat(breakerState(), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(registry.get("shareit.upstream.failures").counter().count(), equalTo(0.0));
+    }
+
+    @Test
+    public void getShouldBeRetriedAfterIoError502And504() {
+        StubClient client = client(20, 3, false, Duration.ofMillis(200));
+        server.script("/items/1", Reply.status(502), Reply.status(504), Reply.status(200));
+        server.script("/items/2", Reply.status(200).delayed(1000), Reply.status(200));
+        server.script("/items/3", Reply.status(500));
+
+        assertThat(client.fetch("/items/1", USER_ID).getStatusCode().value(), equalTo(200));
+        assertThat(server.calls("/items/1"), equalTo(3));
+
+        assertThat(client.fetch("/items/2", USER_ID).getStatusCode().value(), equalTo(200));
+        assertThat(server.calls("/items/2"), equalTo(2));
+
+        // 500 — ошибка сервера, а не канала: повтор, скорее всего, закончится тем же
+        assertThat(client.fetch("/items/3", USER_ID).getStatusCode().value(), equalTo(500));
+        assertThat(server.calls("/items/3"), equalTo(1));
+        assertThat(registry.get("shareit.upstream.retries").counter().count(), equalTo(3.0));
+    }
+
+    @Test
+    public void postShouldNeverBeRetried() {
+        StubClient client = client(20, 3, false, Duration.ofMillis(200));
+        server.script("/items", Reply.status(502));
+        server.script("/items/1/comment", Reply.status(200).delayed(1000));
+
+        assertThat(client.create("/items", USER_ID).getStatusCode().value(), equalTo(502));
+        assertThat(server.calls("/items"), equalTo(1));
+
+        assertThrows(UpstreamUnavailableException.class, () -> client.create("/items/1/comment", USER_ID));
+        assertThat(server.calls("/items/1/comment"), equalTo(1));
+        assertThat(registry.get("shareit.upstream.retries").counter().count(), equalTo(0.0));
+    }
+
+    @Test
+    public void slowGetShouldBeHedgedAfterP95() {
+        StubClient client = client(20, 1, true, Duration.ofSeconds(5));
+        List<Reply> replies = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            replies.add(Reply.status(200)); // Набираем окно длительностей для перцентиля
+        }
+        replies.add(Reply.status(200).delayed(3000));
+        replies.add(Reply.status(200));
+        server.script("/items/1", replies.toArray(Reply[]::new));
+        for (int i = 0; i < 32; i++) {
+            client.fetch("/items/1", USER_ID);
+        }
+
+        long start = System.nanoTime();
+        ResponseEntity<Object> response = client.fetch("/items/1", USER_ID);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(response.getStatusCode().value(), equalTo(200));
+        assertThat(((Map<?, ?>) response.getBody()).get("call"), equalTo(33)); // Ответ страхующей копии
+        assertThat(elapsedMs, lessThan(1500L));
+        assertThat(server.calls("/items/1"), equalTo(34));
+        assertThat(registry.get("shareit.upstream.hedges").counter().count(), equalTo(1.0));
+        assertThat(registry.get("shareit.upstream.hedges.won").counter().count(), equalTo(1.0));
+    }
+
+    /**
+     * Клиент с автоматом на окне из breakerWindow последних запросов (размыкается при половине неудачных).
+     */
+    private StubClient client(int breakerWindow, int maxAttempts, boolean hedgeEnabled, Duration readTimeout) {
+        resilience = new UpstreamResilience(TestMeterRegistries.provider(registry), breakerWindow, breakerWindow, 0.5, OPEN_MS, 2,
+                maxAttempts, 1, 5, 0.1, 10, hedgeEnabled, 20, 1);
+        StubClient client = new StubClient(server.url(), readTimeout);
+        client.setResilience(resilience);
+        return client;
+    }
+
+    private CircuitBreaker.State breakerState() {
+        double state = registry.get("shareit.upstream.breaker.state").tag("group", "items").gauge().value();
+        return CircuitBreaker.State.values()[(int) state];
+    }
+}
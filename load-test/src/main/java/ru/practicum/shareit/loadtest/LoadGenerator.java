@@ -0,0 +1,109 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Генератор нагрузки с замкнутым циклом: каждый из concurrency клиентов отправляет следующий запрос
+ * сразу после получения ответа. Задержки пишутся в HdrHistogram по каждому сценарию.
+ */
+public class LoadGenerator {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final String gatewayUrl;
+    private final TrafficMix mix;
+    private final int concurrency;
+    private final HttpClient client;
+    private final Map<Scenario, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<Scenario, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public LoadGenerator(String gatewayUrl, TrafficMix mix, int concurrency) {
+        this.gatewayUrl = gatewayUrl;
+        this.mix = mix;
+        this.concurrency = concurrency;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Scenario scenario : mix.scenarios()) {
+            recorders.put(scenario, new Recorder(MAX_LATENCY_NANOS, 3));
+            errors.put(scenario, new LongAdder());
+        }
+    }
+
+    /**
+     * Подаёт нагрузку в течение duration и возвращает результаты.
+     * Вызывается сначала для прогрева, затем для замера — счётчики сбрасываются при каждом запуске.
+     */
+    public LoadTestReport run(Duration duration) throws InterruptedException {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+
+        long deadline = System.nanoTime() + duration.toNanos();
+        long started = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> loop(deadline));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        List<LoadTestReport.Row> rows = new ArrayList<>();
+        for (Scenario scenario : mix.scenarios()) {
+            rows.add(new LoadTestReport.Row(scenario.name(),
+                    recorders.get(scenario).getIntervalHistogram(),
+                    errors.get(scenario).sum()));
+        }
+        return new LoadTestReport(rows, elapsed, concurrency);
+    }
+
+    private void loop(long deadline) {
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            Scenario scenario = mix.next();
+            HttpRequest request = toRequest(scenario);
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                ok = response.statusCode() < 400;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                ok = false;
+            }
+            recorders.get(scenario).recordValue(Math.min(System.nanoTime() - start, MAX_LATENCY_NANOS));
+            if (!ok) {
+                errors.get(scenario).increment();
+            }
+        }
+    }
+
+    private HttpRequest toRequest(Scenario scenario) {
+        HttpRequest.BodyPublisher body = scenario.body() != null
+                ? HttpRequest.BodyPublishers.ofString(scenario.body())
+                : HttpRequest.BodyPublishers.noBody();
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + scenario.resolvePath()))
+                .timeout(Duration.ofSeconds(30))
+                .header(USER_ID_HEADER, String.valueOf(ThreadLocalRandom.current().nextInt(1, 101)))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .method(scenario.method(), body)
+                .build();
+    }
+}
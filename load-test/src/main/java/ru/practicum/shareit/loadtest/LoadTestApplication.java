@@ -0,0 +1,55 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+/**
+ * Нагрузочный прогон gateway против заглушки сервера.
+ * Поднимает {@link StubServer}, запускает gateway в этом же процессе (или использует load.gateway-url),
+ * прогревает его и пишет в лог отчёт по пропускной способности и задержкам.
+ */
+@Slf4j
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        TrafficMix mix = new TrafficMix(settings.mix());
+
+        try (StubServer stub = new StubServer(settings.stubLatency(), settings.stubJitter(), settings.stubPayloadSize())) {
+            ConfigurableApplicationContext gateway = null;
+            String gatewayUrl = settings.gatewayUrl();
+            if (gatewayUrl == null) {
+                gateway = startGateway(stub.url());
+                int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+                gatewayUrl = "http://localhost:" + port;
+            }
+            try {
+                LoadGenerator generator = new LoadGenerator(gatewayUrl, mix, settings.concurrency());
+                log.info("Прогрев {} с", settings.warmup().toSeconds());
+                generator.run(settings.warmup());
+                log.info("Замер {} с", settings.duration().toSeconds());
+                LoadTestReport report = generator.run(settings.duration());
+                log.info("Результаты замера:{}", report.format());
+            } finally {
+                if (gateway != null) {
+                    gateway.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Параметры передаются как аргументы командной строки, чтобы перекрыть application.properties gateway.
+     */
+    private static ConfigurableApplicationContext startGateway(String serverUrl) {
+        return new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--shareit-server.url=" + serverUrl,
+                        "--shareit.stream.upstream.enabled=false",
+                        "--shareit.ratelimit.enabled=false",
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO");
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Результаты прогона: пропускная способность и перцентили задержки по каждому сценарию и в целом.
+ */
+public record LoadTestReport(List<Row> rows, Duration elapsed, int concurrency) {
+    private static final double NANOS_IN_MILLI = 1_000_000.0;
+
+    public record Row(String name, Histogram histogram, long errors) {
+    }
+
+    public String format() {
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%nПрогон %d с, %d клиентов%n", elapsed.toSeconds(), concurrency));
+        out.append(String.format(Locale.ROOT, "%-22s %9s %7s %9s %8s %8s %8s %8s %8s%n",
+                "сценарий", "запросов", "ошибок", "rps", "p50 мс", "p90 мс", "p99 мс", "p99.9 мс", "max мс"));
+        for (Row row : rows) {
+            total.add(row.histogram());
+            totalErrors += row.errors();
+            out.append(line(row.name(), row.histogram(), row.errors()));
+        }
+        out.append(line("ИТОГО", total, totalErrors));
+        return out.toString();
+    }
+
+    private String line(String name, Histogram histogram, long errors) {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return String.format(Locale.ROOT, "%-22s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / NANOS_IN_MILLI,
+                histogram.getValueAtPercentile(90) / NANOS_IN_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_IN_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_IN_MILLI,
+                histogram.getMaxValue() / NANOS_IN_MILLI);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного прогона. Читаются из системных свойств load.*.
+ *
+ * @param duration        длительность замера
+ * @param warmup          длительность прогрева (результаты не учитываются)
+ * @param concurrency     число параллельных клиентов (замкнутый цикл: запрос — ответ — следующий запрос)
+ * @param stubLatency     задержка ответа заглушки сервера
+ * @param stubJitter      максимальная случайная добавка к задержке
+ * @param stubPayloadSize число элементов в списочных ответах заглушки
+ * @param mix             веса групп запросов: bookings, items, search, requests, users
+ * @param gatewayUrl      адрес уже запущенного gateway или null, если gateway поднимается в процессе
+ */
+public record LoadTestSettings(Duration duration,
+                               Duration warmup,
+                               int concurrency,
+                               Duration stubLatency,
+                               Duration stubJitter,
+                               int stubPayloadSize,
+                               Map<String, Integer> mix,
+                               String gatewayUrl) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        String gatewayUrl = System.getProperty("load.gateway-url", "");
+        return new LoadTestSettings(
+                Duration.ofSeconds(Long.getLong("load.duration", 30)),
+                Duration.ofSeconds(Long.getLong("load.warmup", 5)),
+                Integer.getInteger("load.concurrency", 32),
+                Duration.ofMillis(Long.getLong("load.stub.latency-ms", 5)),
+                Duration.ofMillis(Long.getLong("load.stub.jitter-ms", 0)),
+                Integer.getInteger("load.stub.payload-size", 10),
+                parseMix(System.getProperty("load.mix", "bookings=30,items=25,search=20,requests=10,users=15")),
+                gatewayUrl.isBlank() ? null : gatewayUrl);
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Некорректный элемент load.mix: " + entry);
+            }
+            mix.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+}
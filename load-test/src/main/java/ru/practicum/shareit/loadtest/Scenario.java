@@ -0,0 +1,20 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Один вид запроса к gateway.
+ *
+ * @param name   имя в отчёте
+ * @param group  группа запросов из load.mix (bookings, items, search, requests, users)
+ * @param method HTTP-метод
+ * @param path   шаблон пути; {id} заменяется случайным идентификатором
+ * @param body   JSON тела запроса или null
+ */
+public record Scenario(String name, String group, String method, String path, String body) {
+    private static final int MAX_ID = 100;
+
+    public String resolvePath() {
+        return path.replace("{id}", String.valueOf(ThreadLocalRandom.current().nextInt(1, MAX_ID + 1)));
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Заглушка REST API сервера ShareIt для нагрузочного прогона gateway без базы данных.
+ * Отвечает на /bookings, /items, /requests и /users заранее сформированным JSON
+ * с настраиваемой задержкой и числом элементов в списках.
+ */
+@Slf4j
+public class StubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long latencyMillis;
+    private final long jitterMillis;
+
+    private final byte[] booking;
+    private final byte[] bookings;
+    private final byte[] item;
+    private final byte[] items;
+    private final byte[] request;
+    private final byte[] requests;
+    private final byte[] user;
+    private final byte[] users;
+
+    public StubServer(Duration latency, Duration jitter, int payloadSize) throws IOException {
+        this.latencyMillis = latency.toMillis();
+        this.jitterMillis = jitter.toMillis();
+
+        this.booking = bytes(bookingJson(1));
+        this.bookings = bytes(list(payloadSize, StubServer::bookingJson));
+        this.item = bytes(itemJson(1));
+        this.items = bytes(list(payloadSize, StubServer::itemJson));
+        this.request = bytes(requestJson(1, payloadSize));
+        this.requests = bytes(list(payloadSize, id -> requestJson(id, 1)));
+        this.user = bytes(userJson(1));
+        this.users = bytes(list(payloadSize, StubServer::userJson));
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/bookings", exchange -> respond(exchange, booking, bookings));
+        this.server.createContext("/items", exchange -> respond(exchange, item, items));
+        this.server.createContext("/requests", exchange -> respond(exchange, request, requests));
+        this.server.createContext("/users", exchange -> respond(exchange, user, users));
+        this.server.start();
+        log.info("Заглушка сервера запущена на {} (задержка {} мс, список из {} элементов)",
+                url(), latencyMillis, payloadSize);
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Запросы к конкретному объекту (/items/5) получают один объект, остальные GET — список;
+     * POST и PATCH возвращают один объект, как и настоящий сервер.
+     */
+    private void respond(HttpExchange exchange, byte[] single, byte[] list) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            pause();
+            String path = exchange.getRequestURI().getPath();
+            boolean singleObject = !"GET".equals(exchange.getRequestMethod())
+                    || path.substring(path.lastIndexOf('/') + 1).chars().allMatch(Character::isDigit);
+            byte[] response = singleObject ? single : list;
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        }
+    }
+
+    private void pause() {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String list(int size, LongFunction<String> element) {
+        StringJoiner joiner = new StringJoiner(",", "[", "]");
+        for (long id = 1; id <= size; id++) {
+            joiner.add(element.apply(id));
+        }
+        return joiner.toString();
+    }
+
+    private static String userJson(long id) {
+        return "{\"id\":" + id + ",\"name\":\"user" + id + "\",\"email\":\"user" + id + "@example.com\"}";
+    }
+
+    private static String itemJson(long id) {
+        return "{\"id\":" + id + ",\"name\":\"Дрель " + id + "\",\"description\":\"Аккумуляторная дрель\","
+                + "\"available\":true,\"requestId\":null,\"lastBooking\":null,\"nextBooking\":null,\"comments\":[]}";
+    }
+
+    private static String bookingJson(long id) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0).plusDays(id);
+        return "{\"id\":" + id + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(2) + "\","
+                + "\"status\":\"WAITING\",\"booker\":" + userJson(id) + ",\"item\":" + itemJson(id) + "}";
+    }
+
+    private static String requestJson(long id, int items) {
+        return "{\"id\":" + id + ",\"description\":\"Нужна дрель\",\"created\":\"2030-01-01T10:00:00\","
+                + "\"items\":" + list(items, StubServer::itemJson) + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Взвешенный набор сценариев. Вес группы из load.mix делится поровну между её сценариями.
+ */
+public class TrafficMix {
+    private final List<Scenario> scenarios;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    public TrafficMix(Map<String, Integer> groupWeights) {
+        List<Scenario> all = defaultScenarios();
+        List<Scenario> selected = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (Map.Entry<String, Integer> group : groupWeights.entrySet()) {
+            List<Scenario> inGroup = all.stream().filter(s -> s.group().equals(group.getKey())).toList();
+            if (inGroup.isEmpty()) {
+                throw new IllegalArgumentException("Неизвестная группа запросов: " + group.getKey());
+            }
+            for (Scenario scenario : inGroup) {
+                selected.add(scenario);
+                weights.add(Math.max(1, group.getValue() * 100 / inGroup.size()));
+            }
+        }
+        this.scenarios = List.copyOf(selected);
+        this.cumulativeWeights = new int[weights.size()];
+        int sum = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            sum += weights.get(i);
+            cumulativeWeights[i] = sum;
+        }
+        this.totalWeight = sum;
+    }
+
+    public List<Scenario> scenarios() {
+        return scenarios;
+    }
+
+    public Scenario next() {
+        int point = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return scenarios.get(i);
+            }
+        }
+        return scenarios.getLast();
+    }
+
+    private static List<Scenario> defaultScenarios() {
+        LocalDateTime start = LocalDateTime.now().plusYears(1).withNano(0);
+        String booking = "{\"itemId\":1,\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}";
+        return List.of(
+                new Scenario("GET /bookings", "bookings", "GET", "/bookings?state=ALL", null),
+                new Scenario("GET /bookings/owner", "bookings", "GET", "/bookings/owner?stateParam=ALL", null),
+                new Scenario("GET /bookings/{id}", "bookings", "GET", "/bookings/{id}", null),
+                new Scenario("POST /bookings", "bookings", "POST", "/bookings", booking),
+                new Scenario("GET /items", "items", "GET", "/items", null),
+                new Scenario("GET /items/{id}", "items", "GET", "/items/{id}", null),
+                new Scenario("GET /items/search", "search", "GET", "/items/search?text=drill", null),
+                new Scenario("GET /requests", "requests", "GET", "/requests", null),
+                new Scenario("GET /requests/all", "requests", "GET", "/requests/all", null),
+                new Scenario("GET /requests/{id}", "requests", "GET", "/requests/{id}", null),
+                new Scenario("GET /users/{id}", "users", "GET", "/users/{id}", null),
+                new Scenario("GET /users", "users", "GET", "/users", null));
+    }
+}
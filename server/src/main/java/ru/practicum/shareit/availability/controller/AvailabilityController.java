@@ -0,0 +1,53 @@
+package ru.practicum.shareit.availability.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.availability.dto.AvailabilityDto;
+import ru.practicum.shareit.availability.service.AvailabilityService;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Контроллер календаря доступности предметов.
+ * Обеспечивает endpoints для:
+ * - получения свободных и занятых интервалов одного предмета;
+ * - получения календарей нескольких предметов владельца.
+ */
+@RestController
+@RequestMapping("/items")
+@RequiredArgsConstructor
+public class AvailabilityController {
+    private final AvailabilityService availabilityService;
+
+    /**
+     * Календарь предмета в окне [from, to).
+     */
+    @GetMapping("/{itemId}/availability")
+    public AvailabilityDto getAvailability(
+            @PathVariable("itemId") Long itemId,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "includeWaiting", defaultValue = "false") boolean includeWaiting) {
+        return availabilityService.getAvailability(itemId, from, to, includeWaiting);
+    }
+
+    /**
+     * Календари предметов владельца (всех или перечисленных в itemIds).
+     */
+    @GetMapping("/availability")
+    public List<AvailabilityDto> getOwnerAvailability(
+            @RequestHeader(CustomHttpHeader.USER_ID) Long ownerId,
+            @RequestParam(name = "itemIds", required = false) List<Long> itemIds,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "includeWaiting", defaultValue = "false") boolean includeWaiting) {
+        return availabilityService.getOwnerAvailability(ownerId, itemIds, from, to, includeWaiting);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.availability.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Календарь доступности предмета в окне [from, to): свободные и занятые интервалы в порядке времени.
+ */
+@Data
+@AllArgsConstructor
+public class AvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<IntervalDto> free;
+    private List<IntervalDto> occupied;
+}
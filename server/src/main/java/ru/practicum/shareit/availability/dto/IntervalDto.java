@@ -0,0 +1,19 @@
+package ru.practicum.shareit.availability.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал календаря предмета. Для свободных интервалов status равен null,
+ * для занятых — статус бронирования (APPROVED или WAITING).
+ */
+@Data
+@AllArgsConstructor
+public class IntervalDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingStatus status;
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.availability.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.availability.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.CacheInvalidationListener;
+import ru.practicum.shareit.cache.CacheRegion;
+import ru.practicum.shareit.util.BoundedMaps;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Индекс интервалов бронирований по предметам в памяти.
+ * Заполняется лениво при первом запросе календаря предмета и сбрасывается при изменении его бронирований.
+ * Хранит только APPROVED и WAITING бронирования — остальные не занимают предмет — и только те,
+ * что закончились не раньше горизонта истории (сейчас минус history-days): окна, начинающиеся раньше него,
+ * читаются из базы мимо индекса. Запись предмета живёт ttl-ms; число предметов ограничено max-items
+ * ({@link BoundedMaps}).
+ * Бронирования, изменённые на других узлах сервера, сбрасываются по сообщению {@link CacheInvalidationBus}.
+ */
+@Component
+public class BookingIntervalIndex implements CacheInvalidationListener {
+    static final List<BookingStatus> INDEXED_STATUSES = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+    private final int maxItems;
+    private final long ttlNanos;
+    private final Duration history;
+    private final Map<Long, Entry> intervalsByItem = new ConcurrentHashMap<>();
+    // Увеличивается при каждом сбросе; загрузка, во время которой был сброс, не кэшируется
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                Clock clock,
+                                @Value("${shareit.availability.index.max-items:100000}") int maxItems,
+                                @Value("${shareit.availability.index.ttl-ms:600000}") long ttlMs,
+                                @Value("${shareit.availability.index.history-days:7}") long historyDays) {
+        this.bookingRepository = bookingRepository;
+        this.clock = clock;
+        this.maxItems = maxItems;
+        this.ttlNanos = ttlMs * 1_000_000;
+        this.history = Duration.ofDays(historyDays);
+    }
+
+    public boolean contains(Long itemId) {
+        return cached(itemId, System.nanoTime()) != null;
+    }
+
+    /**
+     * Интервалы предмета, пересекающие окно [from, to).
+     */
+    public List<BookingInterval> find(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting) {
+        return find(List.of(itemId), from, to, includeWaiting).get(itemId);
+    }
+
+    /**
+     * Интервалы нескольких предметов, пересекающие окно [from, to). Недостающие в индексе предметы
+     * загружаются одним запросом; окно старше горизонта истории целиком читается из базы без кэширования.
+     */
+    public Map<Long, List<BookingInterval>> find(Collection<Long> itemIds,
+                                                 LocalDateTime from,
+                                                 LocalDateTime to,
+                                                 boolean includeWaiting) {
+        LocalDateTime horizon = LocalDateTime.now(clock).minus(history);
+        Map<Long, ItemIntervals> found = new HashMap<>();
+        if (from.isBefore(horizon)) {
+            found.putAll(group(itemIds, bookingRepository.findIntervals(itemIds, INDEXED_STATUSES)));
+        } else {
+            long now = System.nanoTime();
+            List<Long> missing = new ArrayList<>();
+            for (Long itemId : itemIds) {
+                ItemIntervals intervals = cached(itemId, now);
+                if (intervals != null) {
+                    found.put(itemId, intervals);
+                } else {
+                    missing.add(itemId);
+                }
+            }
+            if (!missing.isEmpty()) {
+                found.putAll(load(missing, horizon));
+            }
+        }
+
+        Map<Long, List<BookingInterval>> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            result.put(itemId, found.get(itemId).overlapping(from, to, includeWaiting));
+        }
+        return result;
+    }
+
+    /**
+     * Сбрасывает интервалы предмета сразу и повторно после завершения текущей транзакции,
+     * чтобы параллельный запрос не закэшировал данные, прочитанные до фиксации изменений.
+     */
+    public void evict(Long itemId) {
+        evictNow(itemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(itemId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean supports(CacheRegion region) {
+        return region == CacheRegion.ITEM_BOOKINGS;
+    }
+
+    @Override
+    public void invalidate(CacheRegion region, Long itemId) {
+        evictNow(itemId);
+    }
+
+    private void evictNow(Long itemId) {
+        evictions.incrementAndGet();
+        intervalsByItem.remove(itemId);
+    }
+
+    private ItemIntervals cached(Long itemId, long now) {
+        Entry entry = intervalsByItem.get(itemId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(now)) {
+            intervalsByItem.remove(itemId, entry);
+            return null;
+        }
+        return entry.intervals();
+    }
+
+    private Map<Long, ItemIntervals> load(List<Long> itemIds, LocalDateTime horizon) {
+        long evictionsBefore = evictions.get();
+        Map<Long, ItemIntervals> loaded =
+                group(itemIds, bookingRepository.findIntervalsEndingAfter(itemIds, INDEXED_STATUSES, horizon));
+        if (evictions.get() == evictionsBefore) {
+            long now = System.nanoTime();
+            BoundedMaps.ensureCapacity(intervalsByItem, maxItems, loaded.size(), entry -> entry.isExpired(now));
+            loaded.forEach((itemId, intervals) -> intervalsByItem.put(itemId, new Entry(intervals, now + ttlNanos)));
+        }
+        return loaded;
+    }
+
+    private static Map<Long, ItemIntervals> group(Collection<Long> itemIds, List<BookingInterval> intervals) {
+        Map<Long, List<BookingInterval>> grouped = intervals.stream()
+                .collect(Collectors.groupingBy(BookingInterval::itemId));
+        Map<Long, ItemIntervals> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            result.put(itemId, new ItemIntervals(grouped.getOrDefault(itemId, List.of())));
+        }
+        return result;
+    }
+
+    private record Entry(ItemIntervals intervals, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.availability.index;
+
+import ru.practicum.shareit.availability.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Неизменяемый набор интервалов бронирований одного предмета, отсортированный по началу.
+ * maxEnd[i] — наибольший конец среди первых i+1 интервалов; он монотонен, поэтому первый
+ * интервал, способный пересечь окно, находится бинарным поиском.
+ */
+final class ItemIntervals {
+    private final BookingInterval[] intervals;
+    private final LocalDateTime[] maxEnd;
+
+    ItemIntervals(List<BookingInterval> source) {
+        this.intervals = source.stream()
+                .filter(interval -> interval.start() != null && interval.end() != null)
+                .sorted(Comparator.comparing(BookingInterval::start))
+                .toArray(BookingInterval[]::new);
+        this.maxEnd = new LocalDateTime[intervals.length];
+        LocalDateTime max = null;
+        for (int i = 0; i < intervals.length; i++) {
+            if (max == null || intervals[i].end().isAfter(max)) {
+                max = intervals[i].end();
+            }
+            maxEnd[i] = max;
+        }
+    }
+
+    /**
+     * Интервалы, пересекающие окно [from, to), в порядке начала.
+     * WAITING-бронирования включаются только при includeWaiting.
+     */
+    List<BookingInterval> overlapping(LocalDateTime from, LocalDateTime to, boolean includeWaiting) {
+        List<BookingInterval> result = new ArrayList<>();
+        for (int i = firstEndingAfter(from); i < intervals.length; i++) {
+            BookingInterval interval = intervals[i];
+            if (!interval.start().isBefore(to)) {
+                break;
+            }
+            if (interval.end().isAfter(from)
+                    && (includeWaiting || interval.status() == BookingStatus.APPROVED)) {
+                result.add(interval);
+            }
+        }
+        return result;
+    }
+
+    private int firstEndingAfter(LocalDateTime from) {
+        int low = 0;
+        int high = maxEnd.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxEnd[mid].isAfter(from)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
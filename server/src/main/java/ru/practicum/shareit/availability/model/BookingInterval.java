@@ -0,0 +1,11 @@
+package ru.practicum.shareit.availability.model;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал занятости предмета, построенный по бронированию. Полуоткрытый: [start, end).
+ */
+public record BookingInterval(Long itemId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+}
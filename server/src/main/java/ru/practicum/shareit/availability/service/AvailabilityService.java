@@ -0,0 +1,16 @@
+package ru.practicum.shareit.availability.service;
+
+import ru.practicum.shareit.availability.dto.AvailabilityDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AvailabilityService {
+    AvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting);
+
+    List<AvailabilityDto> getOwnerAvailability(Long ownerId,
+                                               List<Long> itemIds,
+                                               LocalDateTime from,
+                                               LocalDateTime to,
+                                               boolean includeWaiting);
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.availability.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.availability.dto.AvailabilityDto;
+import ru.practicum.shareit.availability.dto.IntervalDto;
+import ru.practicum.shareit.availability.index.BookingIntervalIndex;
+import ru.practicum.shareit.availability.model.BookingInterval;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Сервис календаря доступности предметов.
+ * Свободные интервалы вычисляются проходом по отсортированным по началу бронированиям
+ * из {@link BookingIntervalIndex}, без обращения к базе при повторных запросах.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityServiceImpl implements AvailabilityService {
+    // Окно календаря по умолчанию, если to не передан
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(30);
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final Clock clock;
+
+    /**
+     * Календарь одного предмета.
+     */
+    @Override
+    public AvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting) {
+        if (!bookingIntervalIndex.contains(itemId) && !itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item с id " + itemId + " не найден");
+        }
+        LocalDateTime windowStart = windowStart(from);
+        LocalDateTime windowEnd = windowEnd(windowStart, to);
+
+        List<BookingInterval> intervals = bookingIntervalIndex.find(itemId, windowStart, windowEnd, includeWaiting);
+        return toAvailability(itemId, windowStart, windowEnd, intervals);
+    }
+
+    /**
+     * Календари предметов владельца. Если itemIds не переданы — по всем его предметам.
+     */
+    @Override
+    public List<AvailabilityDto> getOwnerAvailability(Long ownerId,
+                                                      List<Long> itemIds,
+                                                      LocalDateTime from,
+                                                      LocalDateTime to,
+                                                      boolean includeWaiting) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new NotFoundException("User с id " + ownerId + " не найден");
+        }
+        List<Long> ownedIds = itemRepository.findIdsByOwnerId(ownerId);
+        List<Long> requestedIds = ownedIds;
+        if (itemIds != null && !itemIds.isEmpty()) {
+            Set<Long> owned = new HashSet<>(ownedIds);
+            for (Long itemId : itemIds) {
+                if (!owned.contains(itemId)) {
+                    throw new NotFoundException("Item с id " + itemId + " не найден среди вещей пользователя " + ownerId);
+                }
+            }
+            requestedIds = itemIds.stream().distinct().toList();
+        }
+        LocalDateTime windowStart = windowStart(from);
+        LocalDateTime windowEnd = windowEnd(windowStart, to);
+
+        Map<Long, List<BookingInterval>> intervals =
+                bookingIntervalIndex.find(requestedIds, windowStart, windowEnd, includeWaiting);
+        return requestedIds.stream()
+                .map(itemId -> toAvailability(itemId, windowStart, windowEnd, intervals.get(itemId)))
+                .toList();
+    }
+
+    private LocalDateTime windowStart(LocalDateTime from) {
+        return from != null ? from : LocalDateTime.now(clock).truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    private LocalDateTime windowEnd(LocalDateTime windowStart, LocalDateTime to) {
+        LocalDateTime windowEnd = to != null ? to : windowStart.plus(DEFAULT_WINDOW);
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new ConditionsNotMetException("Начало окна " + windowStart + " должно быть раньше конца " + windowEnd);
+        }
+        return windowEnd;
+    }
+
+    /**
+     * Проход по интервалам, отсортированным по началу: всё, что лежит между курсором и началом
+     * очередного бронирования, свободно; курсор сдвигается на наибольший встреченный конец.
+     */
+    private static AvailabilityDto toAvailability(Long itemId,
+                                                  LocalDateTime from,
+                                                  LocalDateTime to,
+                                                  List<BookingInterval> intervals) {
+        List<IntervalDto> free = new ArrayList<>();
+        List<IntervalDto> occupied = new ArrayList<>(intervals.size());
+        LocalDateTime cursor = from;
+        for (BookingInterval interval : intervals) {
+            LocalDateTime start = interval.start().isBefore(from) ? from : interval.start();
+            LocalDateTime end = interval.end().isAfter(to) ? to : interval.end();
+            occupied.add(new IntervalDto(start, end, interval.status()));
+            if (start.isAfter(cursor)) {
+                free.add(new IntervalDto(cursor, start, null));
+            }
+            if (end.isAfter(cursor)) {
+                cursor = end;
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new IntervalDto(cursor, to, null));
+        }
+        return new AvailabilityDto(itemId, from, to, free, occupied);
+    }
+}
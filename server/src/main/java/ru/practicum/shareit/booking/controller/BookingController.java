@@ -2,8 +2,14 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingCountersDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CompactBookingListDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.States;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.util.CustomHttpHeader;
@@ -14,7 +20,7 @@ import java.util.List;
  * Контроллер для управления бронированиями.
  * Обеспечивает REST-интерфейс для:
  * - создания бронирований;
- * - одобрения/отклонения бронирований;
+ * - одобрения/отклонения бронирований (по одному и пакетом);
  * - получения информации о бронированиях (для пользователя и владельца);
  * - фильтрации по статусам.
  * Все методы возвращают DTO, готовые для сериализации в JSON.
@@ -46,13 +52,29 @@ public class BookingController {
         return bookingService.approve(userId, bookingId, approved);
     }
 
+    /**
+     * Одобряет или отклоняет несколько бронирований владельца за один запрос.
+     * Возвращает результат по каждому бронированию в порядке решений.
+     */
+    @PatchMapping
+    public List<BookingDecisionResultDto> approveAll(
+            @RequestHeader(CustomHttpHeader.USER_ID) Long userId,
+            @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.approveAll(userId, decisions);
+    }
+
     /**
      * Получает информацию о конкретном бронировании.
+     * Отдаёт ETag; при совпадении с If-None-Match отвечает 304 без загрузки бронирования.
      */
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(
             @PathVariable("bookingId") Long bookingId,
-            @RequestHeader(CustomHttpHeader.USER_ID) Long userId) {
+            @RequestHeader(CustomHttpHeader.USER_ID) Long userId,
+            WebRequest request) {
+        if (bookingService.findETag(bookingId, userId).filter(request::checkNotModified).isPresent()) {
+            return null;
+        }
         return bookingService.findBooking(bookingId, userId);
     }
 
@@ -66,6 +88,16 @@ public class BookingController {
         return bookingService.getBookingsByUser(userId, state);
     }
 
+    /**
+     * Получает список бронирований арендатора в компактном виде (view=compact).
+     */
+    @GetMapping(params = "view=compact")
+    public CompactBookingListDto getCompactBookingsOfCurrentUser(
+            @RequestHeader(CustomHttpHeader.USER_ID) Long userId,
+            @RequestParam(defaultValue = "ALL") States state) {
+        return BookingMapper.toCompactBookingListDto(bookingService.getBookingsByUser(userId, state));
+    }
+
     /**
      * Получает список бронирований для владельца ресурса.
      */
@@ -75,4 +107,22 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL") States state) {
         return bookingService.getBookingsByOwner(userId, state);
     }
+
+    /**
+     * Получает список бронирований владельца в компактном виде (view=compact).
+     */
+    @GetMapping(path = "/owner", params = "view=compact")
+    public CompactBookingListDto getCompactBookingsByOwner(
+            @RequestHeader(CustomHttpHeader.USER_ID) Long userId,
+            @RequestParam(defaultValue = "ALL") States state) {
+        return BookingMapper.toCompactBookingListDto(bookingService.getBookingsByOwner(userId, state));
+    }
+
+    /**
+     * Получает число бронирований владельца по каждому состоянию.
+     */
+    @GetMapping("/owner/counters")
+    public BookingCountersDto getCountersByOwner(@RequestHeader(CustomHttpHeader.USER_ID) Long userId) {
+        return bookingService.getCountersByOwner(userId);
+    }
 }
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.stream.BookingEventBroadcaster;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+/**
+ * Поток изменений статусов бронирований (Server-Sent Events).
+ * /bookings/stream требует заголовок пользователя и отдаёт события, где он владелец или арендатор;
+ * все события отдаются только по внутреннему пути /internal/bookings/stream, на который подписывается шлюз,
+ * раздающий их своим клиентам. Шлюз этот путь наружу не публикует.
+ */
+@RestController
+@RequiredArgsConstructor
+public class BookingStreamController {
+    private final BookingEventBroadcaster broadcaster;
+
+    @GetMapping(path = "/bookings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(CustomHttpHeader.USER_ID) Long userId) {
+        return broadcaster.subscribe(userId);
+    }
+
+    @GetMapping(path = "/internal/bookings/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAll() {
+        return broadcaster.subscribeAll();
+    }
+}
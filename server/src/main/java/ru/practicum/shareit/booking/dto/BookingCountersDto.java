@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Число бронирований владельца по каждому значению States — для счётчиков на панели владельца.
+ */
+@Data
+@AllArgsConstructor
+public class BookingCountersDto {
+    private long all;
+    private long current;
+    private long past;
+    private long future;
+    private long waiting;
+    private long rejected;
+}
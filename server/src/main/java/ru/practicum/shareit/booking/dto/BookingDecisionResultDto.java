@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат по одному бронированию в пакетном одобрении.
+ * booking заполнен, только если решение применено (APPROVED или REJECTED).
+ */
+@Data
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private DecisionOutcome outcome;
+    private BookingDto booking;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Изменение статуса бронирования, отправляемое подписчикам потока /bookings/stream.
+ * eventId растёт в порядке публикации событий.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusEventDto {
+    private Long eventId;
+    private String type;
+    private Long bookingId;
+    private Long itemId;
+    private Long ownerId;
+    private Long bookerId;
+    private BookingStatus status;
+}
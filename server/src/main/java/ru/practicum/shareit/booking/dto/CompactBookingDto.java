@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование в компактном списке: предмет и арендатор заданы ссылками на таблицы CompactBookingListDto.
+ */
+@Data
+@AllArgsConstructor
+public class CompactBookingDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Long itemId;
+    private Long bookerId;
+    private BookingStatus status;
+}
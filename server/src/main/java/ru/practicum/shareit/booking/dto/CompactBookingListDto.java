@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.item.dto.ResponseItemDto;
+import ru.practicum.shareit.user.dto.UserResponseDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компактный список бронирований (view=compact): каждый предмет и пользователь передаётся один раз
+ * в таблицах items/users по id, а не повторяется в каждом бронировании.
+ */
+@Data
+@AllArgsConstructor
+public class CompactBookingListDto {
+    private List<CompactBookingDto> bookings;
+    private Map<Long, ResponseItemDto> items;
+    private Map<Long, UserResponseDto> users;
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Результат применения решения по бронированию в пакетном одобрении.
+ */
+public enum DecisionOutcome {
+    /**
+     * Бронирование подтверждено.
+     */
+    APPROVED,
+
+    /**
+     * Бронирование отклонено.
+     */
+    REJECTED,
+
+    /**
+     * Бронирование не найдено.
+     */
+    NOT_FOUND,
+
+    /**
+     * Пользователь не владелец вещи.
+     */
+    NOT_OWNER,
+
+    /**
+     * Бронирование уже не ожидает решения (подтверждено, отклонено или отменено).
+     */
+    NOT_WAITING,
+
+    /**
+     * Подтверждение невозможно: период пересекается с подтверждённым бронированием той же вещи.
+     */
+    OVERLAP,
+
+    /**
+     * Повторное решение по тому же бронированию в одном запросе; учитывается только первое.
+     */
+    DUPLICATE
+}
@@ -2,23 +2,33 @@ package ru.practicum.shareit.booking.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingCountersDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CompactBookingDto;
+import ru.practicum.shareit.booking.dto.CompactBookingListDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounts;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ResponseItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Утилитарный класс для преобразования между сущностями бронирований и DTO.
  * Обеспечивает:
  * - конвертацию Booking → BookingDto;
  * - конвертацию CreateBookingDto → Booking;
+ * - конвертацию BookingCounts → BookingCountersDto;
+ * - сборку компактного списка бронирований;
  * - массовую конвертацию коллекций бронирований.
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -51,6 +61,45 @@ public class BookingMapper {
         return res;
     }
 
+    /**
+     * Собирает компактный список: бронирования ссылаются на предметы и арендаторов по id,
+     * а сами предметы и пользователи попадают в таблицы по одному разу.
+     */
+    public static CompactBookingListDto toCompactBookingListDto(List<BookingDto> bookings) {
+        List<CompactBookingDto> compact = new ArrayList<>(bookings.size());
+        Map<Long, ResponseItemDto> items = new LinkedHashMap<>();
+        Map<Long, UserResponseDto> users = new LinkedHashMap<>();
+
+        for (BookingDto booking : bookings) {
+            compact.add(new CompactBookingDto(
+                    booking.getId(),
+                    booking.getStart(),
+                    booking.getEnd(),
+                    booking.getItem().getId(),
+                    booking.getBooker().getId(),
+                    booking.getStatus()
+            ));
+            items.putIfAbsent(booking.getItem().getId(), booking.getItem());
+            users.putIfAbsent(booking.getBooker().getId(), booking.getBooker());
+        }
+
+        return new CompactBookingListDto(compact, items, users);
+    }
+
+    /**
+     * Преобразует счётчики бронирований владельца в DTO.
+     */
+    public static BookingCountersDto toBookingCountersDto(BookingCounts counts) {
+        return new BookingCountersDto(
+                counts.all(),
+                counts.current(),
+                counts.past(),
+                counts.future(),
+                counts.waiting(),
+                counts.rejected()
+        );
+    }
+
     /**
      * Создаёт сущность Booking из DTO создания бронирования.
      * Устанавливает начальный статус WAITING и связывает с Item и User.
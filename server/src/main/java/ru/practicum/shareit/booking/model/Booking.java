@@ -32,4 +32,8 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
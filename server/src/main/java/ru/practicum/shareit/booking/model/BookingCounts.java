@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Число бронирований владельца по каждому значению States на момент подсчёта.
+ * nextChange — ближайшая граница (начало или конец подтверждённого бронирования), после которой
+ * счётчики CURRENT/PAST/FUTURE станут неверными; null, если таких границ нет.
+ */
+public record BookingCounts(long all,
+                            long current,
+                            long past,
+                            long future,
+                            long waiting,
+                            long rejected,
+                            LocalDateTime nextChange) {
+
+    /**
+     * Конструктор для группирующего запроса: SUM и MIN по пустой выборке возвращают null.
+     */
+    public BookingCounts(Long all,
+                         Long current,
+                         Long past,
+                         Long future,
+                         Long waiting,
+                         Long rejected,
+                         LocalDateTime nextStart,
+                         LocalDateTime nextEnd) {
+        this(orZero(all), orZero(current), orZero(past), orZero(future), orZero(waiting), orZero(rejected),
+                earliest(nextStart, nextEnd));
+    }
+
+    /**
+     * Годятся ли счётчики на момент now.
+     */
+    public boolean isValidAt(LocalDateTime now) {
+        return nextChange == null || now.isBefore(nextChange);
+    }
+
+    /**
+     * Счётчики после смены статуса одного бронирования.
+     * from == null — бронирование создано, to == null — удалено.
+     */
+    public BookingCounts withChange(BookingStatus from,
+                                    BookingStatus to,
+                                    LocalDateTime start,
+                                    LocalDateTime end,
+                                    LocalDateTime now) {
+        BookingCounts removed = from == null ? this : plus(from, start, end, now, -1);
+        return to == null ? removed : removed.plus(to, start, end, now, 1);
+    }
+
+    /**
+     * Прибавляет delta к счётчикам, которые учитывают бронирование с данным статусом и периодом.
+     * Правила совпадают с выборкой getBookingsByOwner.
+     */
+    private BookingCounts plus(BookingStatus status,
+                               LocalDateTime start,
+                               LocalDateTime end,
+                               LocalDateTime now,
+                               int delta) {
+        long newCurrent = current;
+        long newPast = past;
+        long newFuture = future;
+        LocalDateTime newNextChange = nextChange;
+        if (status == BookingStatus.APPROVED) {
+            if (start.isBefore(now) && end.isAfter(now)) {
+                newCurrent += delta;
+            }
+            if (end.isBefore(now)) {
+                newPast += delta;
+            }
+            if (start.isAfter(now)) {
+                newFuture += delta;
+            }
+            if (delta > 0) {
+                newNextChange = earliest(newNextChange, start.isBefore(now) ? null : start);
+                newNextChange = earliest(newNextChange, end.isBefore(now) ? null : end);
+            }
+        }
+        return new BookingCounts(all + delta,
+                newCurrent,
+                newPast,
+                newFuture,
+                status == BookingStatus.WAITING ? waiting + delta : waiting,
+                status == BookingStatus.REJECTED ? rejected + delta : rejected,
+                newNextChange);
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isBefore(second) ? first : second;
+    }
+}
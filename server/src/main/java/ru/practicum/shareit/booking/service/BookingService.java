@@ -1,19 +1,29 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCountersDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.States;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
     BookingDto createBooking(CreateBookingDto createBookingDto, Long userId);
 
     BookingDto approve(Long userId, Long bookingId, boolean approved);
 
+    List<BookingDecisionResultDto> approveAll(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDto findBooking(Long bookingId, Long userId);
 
+    Optional<String> findETag(Long bookingId, Long userId);
+
     List<BookingDto> getBookingsByUser(Long userId, States state);
 
     List<BookingDto> getBookingsByOwner(Long userId, States state);
+
+    BookingCountersDto getCountersByOwner(Long userId);
 }
@@ -5,14 +5,25 @@ import com.querydsl.core.types.dsl.Expressions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.availability.index.BookingIntervalIndex;
+import ru.practicum.shareit.availability.model.BookingInterval;
+import ru.practicum.shareit.booking.dto.BookingCountersDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.DecisionOutcome;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.QBooking;
 import ru.practicum.shareit.booking.model.States;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.CacheRegion;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.event.service.DomainEventPublisher;
+import ru.practicum.shareit.event.service.EventPayloads;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -20,8 +31,17 @@ import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления бронированиями.
@@ -37,6 +57,21 @@ public class BookingServiceImpl implements BookingService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final Clock clock;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final DomainEventPublisher eventPublisher;
+    private final OwnerBookingCounters ownerBookingCounters;
+    private final CacheInvalidationBus invalidationBus;
+
+    /**
+     * Сообщает другим узлам об изменении бронирования: сбрасываются кэши самого бронирования,
+     * календаря предмета и счётчиков владельца.
+     */
+    private void invalidateCaches(Booking booking) {
+        invalidationBus.publish(CacheRegion.BOOKING, booking.getId());
+        invalidationBus.publish(CacheRegion.ITEM_BOOKINGS, booking.getItem().getId());
+        invalidationBus.publish(CacheRegion.OWNER_BOOKINGS, booking.getItem().getOwner().getId());
+    }
 
     /**
      * Проверяет доступность предмета для бронирования.
@@ -49,11 +84,16 @@ public class BookingServiceImpl implements BookingService {
 
     /**
      * Одобряет или отклоняет бронирование.
+     * При одобрении строка предмета блокируется и период проверяется на пересечение с подтверждёнными
+     * бронированиями — так же, как в {@link #approveAll}, поэтому одиночное и пакетное подтверждения
+     * не могут одобрить пересекающиеся периоды одновременно.
      */
     @Override
     @Transactional
     public BookingDto approve(Long userId, Long bookingId, boolean approved) {
-        Booking booking = getBooking(bookingId);
+        // Блокировка строки: фоновая отмена просроченных бронирований пропустит её
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> new NotFoundException("Booking с id " + bookingId + " не найден"));
 
         if (!booking.getItem().getOwner().getId().equals(userId)) {
             throw new ConditionsNotMetException(
@@ -61,8 +101,100 @@ public class BookingServiceImpl implements BookingService {
             );
         }
 
+        if (booking.getStatus() == BookingStatus.CANCELED) {
+            throw new ConditionsNotMetException("Бронирование с id " + bookingId + " отменено");
+        }
+
+        if (approved && booking.getStatus() != BookingStatus.APPROVED) {
+            Long itemId = booking.getItem().getId();
+            itemRepository.lockByIds(List.of(itemId));
+            if (overlaps(booking, bookingRepository.findIntervals(List.of(itemId), List.of(BookingStatus.APPROVED)))) {
+                throw new ConditionsNotMetException(
+                        "Бронирование с id " + bookingId + " пересекается с подтверждённым бронированием"
+                );
+            }
+        }
+
+        BookingStatus previous = booking.getStatus();
         booking.setStatus(getStatusByApprove(approved));
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        ownerBookingCounters.record(booking, previous, booking.getStatus());
+        bookingIntervalIndex.evict(booking.getItem().getId());
+        Booking saved = bookingRepository.save(booking);
+        eventPublisher.publish(approved ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED,
+                saved.getId(), EventPayloads.booking(saved));
+        invalidateCaches(saved);
+        return BookingMapper.toBookingDto(saved);
+    }
+
+    /**
+     * Применяет пакет решений владельца.
+     * Бронирования с предметами и арендаторами загружаются одним запросом, строки предметов блокируются,
+     * подтверждённые интервалы этих предметов читаются одним запросом — так проверка пересечений
+     * атомарна относительно других пакетных подтверждений. Изменённые бронирования сохраняются
+     * при фиксации одним JDBC-пакетом (hibernate.jdbc.batch_size).
+     */
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> approveAll(Long userId, List<BookingDecisionDto> decisions) {
+        getUser(userId); // Проверяем существование владельца
+
+        List<Long> ids = decisions.stream().map(BookingDecisionDto::getBookingId).distinct().toList();
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBooker(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<Long> ownedItemIds = bookings.values().stream()
+                .filter(booking -> booking.getItem().getOwner().getId().equals(userId))
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .toList();
+        Map<Long, List<BookingInterval>> approvedByItem = new HashMap<>();
+        if (!ownedItemIds.isEmpty()) {
+            itemRepository.lockByIds(ownedItemIds);
+            approvedByItem.putAll(bookingRepository.findIntervals(ownedItemIds, List.of(BookingStatus.APPROVED))
+                    .stream()
+                    .collect(Collectors.groupingBy(BookingInterval::itemId, Collectors.toCollection(ArrayList::new))));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            DecisionOutcome outcome;
+            if (!seen.add(bookingId)) {
+                outcome = DecisionOutcome.DUPLICATE;
+            } else if (booking == null) {
+                outcome = DecisionOutcome.NOT_FOUND;
+            } else if (!booking.getItem().getOwner().getId().equals(userId)) {
+                outcome = DecisionOutcome.NOT_OWNER;
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                outcome = DecisionOutcome.NOT_WAITING;
+            } else if (Boolean.TRUE.equals(decision.getApproved())) {
+                List<BookingInterval> approved =
+                        approvedByItem.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>());
+                outcome = overlaps(booking, approved) ? DecisionOutcome.OVERLAP : DecisionOutcome.APPROVED;
+                if (outcome == DecisionOutcome.APPROVED) {
+                    approved.add(new BookingInterval(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                            BookingStatus.APPROVED));
+                }
+            } else {
+                outcome = DecisionOutcome.REJECTED;
+            }
+
+            if (outcome == DecisionOutcome.APPROVED || outcome == DecisionOutcome.REJECTED) {
+                boolean approvedDecision = outcome == DecisionOutcome.APPROVED;
+                booking.setStatus(getStatusByApprove(approvedDecision));
+                ownerBookingCounters.record(booking, BookingStatus.WAITING, booking.getStatus());
+                bookingIntervalIndex.evict(booking.getItem().getId());
+                eventPublisher.publish(approvedDecision ? EventType.BOOKING_APPROVED : EventType.BOOKING_REJECTED,
+                        booking.getId(), EventPayloads.booking(booking));
+                invalidateCaches(booking);
+                results.add(new BookingDecisionResultDto(bookingId, outcome, BookingMapper.toBookingDto(booking)));
+            } else {
+                results.add(new BookingDecisionResultDto(bookingId, outcome, null));
+            }
+        }
+        return results;
     }
 
     /**
@@ -79,7 +211,12 @@ public class BookingServiceImpl implements BookingService {
         Booking newBooking = BookingMapper.toBooking(createBookingDto, bookingItem, user);
 
         checkItemAvailable(newBooking);
-        return BookingMapper.toBookingDto(bookingRepository.save(newBooking));
+        bookingIntervalIndex.evict(itemId);
+        Booking saved = bookingRepository.save(newBooking);
+        ownerBookingCounters.record(saved, null, saved.getStatus());
+        eventPublisher.publish(EventType.BOOKING_CREATED, saved.getId(), EventPayloads.booking(saved));
+        invalidateCaches(saved);
+        return BookingMapper.toBookingDto(saved);
     }
 
     /**
@@ -109,6 +246,24 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingDto(res);
     }
 
+    /**
+     * Возвращает счётчики бронирований владельца из кэша OwnerBookingCounters.
+     */
+    @Override
+    public BookingCountersDto getCountersByOwner(Long userId) {
+        getUser(userId); // Проверяем существование владельца
+
+        return BookingMapper.toBookingCountersDto(ownerBookingCounters.get(userId));
+    }
+
+    /**
+     * Возвращает ETag бронирования, доступного пользователю: учитывает версии бронирования, предмета и арендатора.
+     */
+    @Override
+    public Optional<String> findETag(Long bookingId, Long userId) {
+        return bookingRepository.findVersionTag(bookingId, userId).map(tag -> "\"b" + bookingId + "." + tag + "\"");
+    }
+
     /**
      * Получает конкретное бронирование (если пользователь — арендатор или владелец).
      */
@@ -144,6 +299,15 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException("User с id " + id + " не найден"));
     }
 
+    /**
+     * Пересекается ли период бронирования с одним из подтверждённых интервалов.
+     */
+    private static boolean overlaps(Booking booking, List<BookingInterval> approved) {
+        return approved.stream().anyMatch(interval -> interval.start() != null && interval.end() != null
+                && interval.start().isBefore(booking.getEnd())
+                && interval.end().isAfter(booking.getStart()));
+    }
+
     /**
      * Определяет статус бронирования по флагу одобрения.
      */
@@ -156,14 +320,15 @@ public class BookingServiceImpl implements BookingService {
      */
     private BooleanExpression getExpressionByState(States state) {
         BooleanExpression approved = QBooking.booking.status.eq(BookingStatus.APPROVED);
+        LocalDateTime now = LocalDateTime.now(clock);
 
         return switch (state) {
             case ALL -> Expressions.TRUE;
             case CURRENT -> approved
-                    .and(QBooking.booking.start.before(LocalDateTime.now()))
-                    .and(QBooking.booking.end.after(LocalDateTime.now()));
-            case FUTURE -> approved.and(QBooking.booking.start.after(LocalDateTime.now()));
-            case PAST -> approved.and(QBooking.booking.end.before(LocalDateTime.now()));
+                    .and(QBooking.booking.start.before(now))
+                    .and(QBooking.booking.end.after(now));
+            case FUTURE -> approved.and(QBooking.booking.start.after(now));
+            case PAST -> approved.and(QBooking.booking.end.before(now));
             case WAITING -> QBooking.booking.status.eq(BookingStatus.WAITING);
             case REJECTED -> QBooking.booking.status.eq(BookingStatus.REJECTED);
         };
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодически запускает отмену просроченных WAITING-бронирований.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.bookings.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class ExpiredBookingSweepScheduler {
+    private final ExpiredBookingSweeper expiredBookingSweeper;
+
+    @Scheduled(fixedDelayString = "${shareit.bookings.sweeper.delay-ms:60000}",
+            initialDelayString = "${shareit.bookings.sweeper.delay-ms:60000}")
+    public void sweep() {
+        expiredBookingSweeper.sweep();
+    }
+}
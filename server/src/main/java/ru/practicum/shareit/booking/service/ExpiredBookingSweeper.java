@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.availability.index.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.CacheRegion;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.event.service.DomainEventPublisher;
+import ru.practicum.shareit.event.service.EventPayloads;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отменяет WAITING-бронирования, начало которых уже прошло: владелец так и не ответил,
+ * и бронирование больше не может состояться.
+ * Работает пачками по chunkSize строк, каждая пачка — в отдельной короткой транзакции:
+ * строки блокируются с SKIP LOCKED и переводятся в CANCELED одним UPDATE.
+ */
+@Slf4j
+@Component
+public class ExpiredBookingSweeper {
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final DomainEventPublisher eventPublisher;
+    private final OwnerBookingCounters ownerBookingCounters;
+    private final CacheInvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final Counter canceled;
+    private final DistributionSummary rowsPerRun;
+
+    public ExpiredBookingSweeper(BookingRepository bookingRepository,
+                                 BookingIntervalIndex bookingIntervalIndex,
+                                 DomainEventPublisher eventPublisher,
+                                 OwnerBookingCounters ownerBookingCounters,
+                                 CacheInvalidationBus invalidationBus,
+                                 PlatformTransactionManager transactionManager,
+                                 Clock clock,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${shareit.bookings.sweeper.chunk-size:500}") int chunkSize,
+                                 @Value("${shareit.bookings.sweeper.max-chunks:20}") int maxChunks) {
+        this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.eventPublisher = eventPublisher;
+        this.ownerBookingCounters = ownerBookingCounters;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.canceled = Counter.builder("shareit.bookings.expired")
+                .description("WAITING-бронирования, отменённые из-за наступления даты начала")
+                .register(registry);
+        this.rowsPerRun = DistributionSummary.builder("shareit.bookings.sweeper.rows")
+                .description("Число отменённых бронирований за проход")
+                .register(registry);
+    }
+
+    /**
+     * Один проход: не более maxChunks пачек. Возвращает число отменённых бронирований.
+     */
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            Integer processed = transactionTemplate.execute(status -> cancelChunk(now));
+            total += processed == null ? 0 : processed;
+            if (processed == null || processed < chunkSize) {
+                break;
+            }
+        }
+        canceled.increment(total);
+        rowsPerRun.record(total);
+        if (total > 0) {
+            log.info("Отменено просроченных WAITING-бронирований: {}", total);
+        } else {
+            log.debug("Просроченных WAITING-бронирований нет");
+        }
+        return total;
+    }
+
+    private int cancelChunk(LocalDateTime now) {
+        List<Long> ids = bookingRepository.lockExpiredWaitingIds(now, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Booking> bookings = bookingRepository.findAllWithItemAndBooker(ids);
+        int updated = bookingRepository.cancelWaiting(ids);
+        for (Booking booking : bookings) {
+            Map<String, Object> payload = EventPayloads.booking(booking);
+            payload.put("status", BookingStatus.CANCELED.name());
+            eventPublisher.publish(EventType.BOOKING_CANCELED, booking.getId(), payload);
+            bookingIntervalIndex.evict(booking.getItem().getId());
+            ownerBookingCounters.record(booking, BookingStatus.WAITING, BookingStatus.CANCELED);
+            invalidationBus.publish(CacheRegion.BOOKING, booking.getId());
+            invalidationBus.publish(CacheRegion.ITEM_BOOKINGS, booking.getItem().getId());
+            invalidationBus.publish(CacheRegion.OWNER_BOOKINGS, booking.getItem().getOwner().getId());
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounts;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.CacheInvalidationListener;
+import ru.practicum.shareit.cache.CacheRegion;
+import ru.practicum.shareit.util.BoundedMaps;
+import ru.practicum.shareit.util.TimeBucket;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш счётчиков бронирований по владельцам.
+ * Заполняется группирующим запросом при первом обращении и обновляется приращениями после фиксации
+ * транзакций, создающих бронирования или меняющих их статус. Запись живёт только в пределах минутного
+ * TimeBucket (и не дольше ближайшей границы подтверждённого бронирования, BookingCounts.nextChange),
+ * поэтому кэш экономит лишь повторные обращения внутри минуты: активный владелец обходится примерно
+ * в один группирующий запрос в минуту, а приращения лишь сохраняют запись точной до конца этой минуты.
+ * Изменения в обход сервиса (например, удаление пользователя) видны не позже чем через минуту.
+ * Число владельцев ограничено max-owners ({@link BoundedMaps}; устаревшими считаются записи прошлых минут).
+ * Изменения на других узлах сервера сбрасывают запись владельца по сообщению {@link CacheInvalidationBus}.
+ */
+@Component
+public class OwnerBookingCounters implements CacheInvalidationListener {
+    private final BookingRepository bookingRepository;
+    private final Clock clock;
+    private final int maxOwners;
+    private final Map<Long, Entry> countsByOwner = new ConcurrentHashMap<>();
+    // Владельцы, чьи изменения уже фиксируются, но ещё не применены к кэшу
+    private final Map<Long, Integer> committing = new ConcurrentHashMap<>();
+    // Увеличивается после применения каждого изменения; загрузка, во время которой оно было, не кэшируется
+    private final AtomicLong changes = new AtomicLong();
+
+    public OwnerBookingCounters(BookingRepository bookingRepository,
+                                Clock clock,
+                                @Value("${shareit.bookings.owner-counters.max-owners:100000}") int maxOwners) {
+        this.bookingRepository = bookingRepository;
+        this.clock = clock;
+        this.maxOwners = maxOwners;
+    }
+
+    /**
+     * Счётчики владельца на текущий момент.
+     */
+    public BookingCounts get(Long ownerId) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        TimeBucket bucket = TimeBucket.of(clock);
+        Entry entry = countsByOwner.get(ownerId);
+        if (entry != null && entry.isValid(bucket, now)) {
+            return entry.counts();
+        }
+
+        long changesBefore = changes.get();
+        BookingCounts counts = bookingRepository.countByOwner(ownerId, now);
+        if (changes.get() == changesBefore && !committing.containsKey(ownerId)) {
+            BoundedMaps.ensureCapacity(countsByOwner, ownerId, maxOwners, cached -> !cached.isValid(bucket, now));
+            countsByOwner.put(ownerId, new Entry(bucket, counts));
+        }
+        return counts;
+    }
+
+    /**
+     * Учитывает создание бронирования или смену его статуса с from на to.
+     * Внутри транзакции приращение применяется после фиксации, при откате — отбрасывается.
+     */
+    public void record(Booking booking, BookingStatus from, BookingStatus to) {
+        Long ownerId = booking.getItem().getOwner().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(ownerId, from, to, start, end);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean registered;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing.merge(ownerId, 1, Integer::sum);
+                registered = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    apply(ownerId, from, to, start, end);
+                }
+                if (registered) {
+                    committing.computeIfPresent(ownerId, (id, count) -> count == 1 ? null : count - 1);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean supports(CacheRegion region) {
+        return region == CacheRegion.OWNER_BOOKINGS;
+    }
+
+    /**
+     * Сбрасывает счётчики владельца, изменённые на другом узле; идущая загрузка их не закэширует.
+     */
+    @Override
+    public void invalidate(CacheRegion region, Long ownerId) {
+        changes.incrementAndGet();
+        countsByOwner.remove(ownerId);
+    }
+
+    private void apply(Long ownerId,
+                       BookingStatus from,
+                       BookingStatus to,
+                       LocalDateTime start,
+                       LocalDateTime end) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        TimeBucket bucket = TimeBucket.of(clock);
+        countsByOwner.computeIfPresent(ownerId, (id, entry) -> entry.isValid(bucket, now)
+                ? new Entry(entry.bucket(), entry.counts().withChange(from, to, start, end, now))
+                : null);
+        changes.incrementAndGet();
+    }
+
+    private record Entry(TimeBucket bucket, BookingCounts counts) {
+        boolean isValid(TimeBucket current, LocalDateTime now) {
+            return bucket.equals(current) && counts.isValidAt(now);
+        }
+    }
+}
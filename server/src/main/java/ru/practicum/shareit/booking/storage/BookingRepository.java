@@ -1,13 +1,25 @@
 package ru.practicum.shareit.booking.storage;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.availability.model.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounts;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking> {
 
@@ -22,14 +34,106 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, Queryds
     List<Booking> findAllByItem(Item item);
 
     /**
-     * Проверяет, есть ли у пользователя завершённое бронирование для конкретного item
+     * Проверяет, есть ли у пользователя завершённое к моменту now бронирование для конкретного item
      */
     @Query("SELECT COUNT(b) > 0 " +
             "FROM Booking b " +
             "WHERE b.item.id = :itemId " +
             "  AND b.booker.id = :userId " +
-            "  AND b.end < CURRENT_TIMESTAMP")
-    boolean existsPastBookingForUser(@Param("itemId") Long itemId, @Param("userId") Long userId);
-}
+            "  AND b.end < :now")
+    boolean existsPastBookingForUser(@Param("itemId") Long itemId,
+                                     @Param("userId") Long userId,
+                                     @Param("now") LocalDateTime now);
+
+    /**
+     * Возвращает интервалы бронирований указанных предметов с заданными статусами, без загрузки сущностей.
+     */
+    @Query("SELECT new ru.practicum.shareit.availability.model.BookingInterval(b.item.id, b.start, b.end, b.status) " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "  AND b.status IN :statuses " +
+            "ORDER BY b.start ASC")
+    List<BookingInterval> findIntervals(@Param("itemIds") Collection<Long> itemIds,
+                                        @Param("statuses") Collection<BookingStatus> statuses);
+
+    /**
+     * Интервалы бронирований указанных предметов с заданными статусами, заканчивающиеся после after.
+     */
+    @Query("SELECT new ru.practicum.shareit.availability.model.BookingInterval(b.item.id, b.start, b.end, b.status) " +
+            "FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "  AND b.status IN :statuses " +
+            "  AND b.end > :after " +
+            "ORDER BY b.start ASC")
+    List<BookingInterval> findIntervalsEndingAfter(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("statuses") Collection<BookingStatus> statuses,
+                                                   @Param("after") LocalDateTime after);
 
+    /**
+     * Считает бронирования владельца по каждому значению States одним группирующим запросом.
+     * Заодно находит ближайшие начало и конец подтверждённых бронирований не раньше now —
+     * до них счётчики CURRENT/PAST/FUTURE не меняются.
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingCounts(" +
+            "  COUNT(b), " +
+            "  SUM(CASE WHEN b.status = 'APPROVED' AND b.start < :now AND b.end > :now THEN 1 ELSE 0 END), " +
+            "  SUM(CASE WHEN b.status = 'APPROVED' AND b.end < :now THEN 1 ELSE 0 END), " +
+            "  SUM(CASE WHEN b.status = 'APPROVED' AND b.start > :now THEN 1 ELSE 0 END), " +
+            "  SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), " +
+            "  SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END), " +
+            "  MIN(CASE WHEN b.status = 'APPROVED' AND b.start >= :now THEN b.start END), " +
+            "  MIN(CASE WHEN b.status = 'APPROVED' AND b.end >= :now THEN b.end END)) " +
+            "FROM Booking b " +
+            "WHERE b.item.owner.id = :ownerId")
+    BookingCounts countByOwner(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
 
+    /**
+     * Загружает бронирование с блокировкой строки до конца транзакции.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Блокирует очередную пачку WAITING-бронирований, начало которых уже прошло.
+     * Таймаут блокировки -2 (SKIP LOCKED): строки, занятые другими транзакциями (например, approve),
+     * пропускаются, а не ожидаются.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.status = 'WAITING' " +
+            "  AND b.start < :now " +
+            "ORDER BY b.id ASC")
+    List<Long> lockExpiredWaitingIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Загружает бронирования вместе с предметами и арендаторами одним запросом.
+     */
+    @Query("SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.id IN :ids")
+    List<Booking> findAllWithItemAndBooker(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Переводит WAITING-бронирования из списка в статус CANCELED одним UPDATE (с увеличением версии строк).
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'CANCELED', b.version = b.version + 1 " +
+            "WHERE b.id IN :ids AND b.status = 'WAITING'")
+    int cancelWaiting(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Метка версии бронирования для ETag: версии бронирования, предмета и арендатора.
+     * Строка находится, только если пользователь — арендатор или владелец предмета.
+     */
+    @Query("SELECT CONCAT(CAST(b.version AS String), '.', CAST(it.version AS String), '.', " +
+            "       CAST(u.version AS String)) " +
+            "FROM Booking b " +
+            "JOIN b.item it " +
+            "JOIN b.booker u " +
+            "WHERE b.id = :bookingId " +
+            "  AND (u.id = :userId OR it.owner.id = :userId)")
+    Optional<String> findVersionTag(@Param("bookingId") Long bookingId, @Param("userId") Long userId);
+}
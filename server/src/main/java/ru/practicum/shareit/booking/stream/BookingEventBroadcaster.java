@@ -0,0 +1,167 @@
+package ru.practicum.shareit.booking.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingStatusEventDto;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка изменений статусов бронирований подписчикам SSE.
+ * Подписчик с userId получает события, где он владелец или арендатор; подписчик без userId
+ * (шлюз, который сам раздаёт события своим клиентам) получает все события.
+ * У каждого подписчика своя ограниченная очередь, отправка идёт на виртуальных потоках,
+ * а периодический комментарий-пинг закрывает оборванные соединения.
+ */
+@Slf4j
+@Component
+public class BookingEventBroadcaster {
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final long timeoutMs;
+    private final Map<Long, Set<SseSubscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final Set<SseSubscriber> allEventsSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("booking-stream-heartbeat").daemon().factory());
+    private final Counter published;
+    private final Counter slowDisconnects;
+
+    public BookingEventBroadcaster(ObjectMapper objectMapper,
+                                   ObjectProvider<MeterRegistry> meterRegistry,
+                                   @Value("${shareit.stream.queue-capacity:256}") int queueCapacity,
+                                   @Value("${shareit.stream.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${shareit.stream.heartbeat-ms:15000}") long heartbeatMs) {
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMs = timeoutMs;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("shareit.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Открытые подписки на поток бронирований")
+                .register(registry);
+        this.published = Counter.builder("shareit.stream.events")
+                .description("События, разосланные подписчикам потока бронирований")
+                .register(registry);
+        this.slowDisconnects = Counter.builder("shareit.stream.slow.disconnects")
+                .description("Подписчики, отключённые из-за переполнения очереди")
+                .register(registry);
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Открывает подписку пользователя на события, где он владелец или арендатор.
+     */
+    public SseEmitter subscribe(long userId) {
+        return open(userId);
+    }
+
+    /**
+     * Открывает подписку на все события (для шлюза).
+     */
+    public SseEmitter subscribeAll() {
+        return open(null);
+    }
+
+    private SseEmitter open(Long userId) {
+        SseSubscriber subscriber = new SseSubscriber(userId, new SseEmitter(timeoutMs), queueCapacity, senders);
+        subscriber.onClose(() -> remove(subscriber));
+        subscribers.incrementAndGet();
+        if (userId == null) {
+            allEventsSubscribers.add(subscriber);
+        } else {
+            subscribersByUser.compute(userId, (id, group) -> {
+                Set<SseSubscriber> result = group == null ? ConcurrentHashMap.newKeySet() : group;
+                result.add(subscriber);
+                return result;
+            });
+        }
+        return subscriber.getEmitter();
+    }
+
+    /**
+     * Рассылает событие владельцу, арендатору и подписчикам на все события.
+     */
+    public void publish(BookingStatusEventDto event) {
+        Set<ResponseBodyEmitter.DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                    .id(String.valueOf(event.getEventId()))
+                    .name(event.getType())
+                    .data(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось сериализовать событие бронирования {}", event.getBookingId(), e);
+            return;
+        }
+        deliver(allEventsSubscribers, frame);
+        deliver(subscribersByUser.get(event.getOwnerId()), frame);
+        if (!event.getBookerId().equals(event.getOwnerId())) {
+            deliver(subscribersByUser.get(event.getBookerId()), frame);
+        }
+        published.increment();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        allEventsSubscribers.forEach(SseSubscriber::close);
+        subscribersByUser.values().forEach(group -> group.forEach(SseSubscriber::close));
+        senders.shutdown();
+    }
+
+    private void deliver(Set<SseSubscriber> group, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (group == null) {
+            return;
+        }
+        for (SseSubscriber subscriber : group) {
+            if (!subscriber.isClosed() && !subscriber.offer(frame)) {
+                slowDisconnects.increment();
+            }
+        }
+    }
+
+    private void heartbeat() {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+            allEventsSubscribers.forEach(subscriber -> subscriber.offer(ping));
+            subscribersByUser.values().forEach(group -> group.forEach(subscriber -> subscriber.offer(ping)));
+        } catch (RuntimeException e) {
+            log.warn("Ошибка отправки пинга подписчикам потока бронирований", e);
+        }
+    }
+
+    private void remove(SseSubscriber subscriber) {
+        subscribers.decrementAndGet();
+        if (subscriber.getUserId() == null) {
+            allEventsSubscribers.remove(subscriber);
+            return;
+        }
+        subscribersByUser.computeIfPresent(subscriber.getUserId(), (id, group) -> {
+            group.remove(subscriber);
+            return group.isEmpty() ? null : group;
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingStatusEventDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.event.model.DomainEvent;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.event.service.DomainEventConsumer;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Передаёт события бронирований из outbox в поток SSE.
+ * События приходят только после фиксации транзакции, поэтому клиенты не видят откатившихся изменений.
+ * При повторной доставке пачки подписчик может получить событие дважды — eventId позволяет отбросить дубль.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingStreamConsumer implements DomainEventConsumer {
+    private static final Set<EventType> BOOKING_EVENTS = EnumSet.of(
+            EventType.BOOKING_CREATED,
+            EventType.BOOKING_APPROVED,
+            EventType.BOOKING_REJECTED,
+            EventType.BOOKING_CANCELED);
+
+    private final BookingEventBroadcaster broadcaster;
+
+    @Override
+    public boolean supports(EventType type) {
+        return BOOKING_EVENTS.contains(type);
+    }
+
+    @Override
+    public void consume(List<DomainEvent> events) {
+        if (broadcaster.getSubscriberCount() == 0) {
+            return;
+        }
+        events.stream()
+                .map(BookingStreamConsumer::toStatusEvent)
+                .forEach(broadcaster::publish);
+    }
+
+    private static BookingStatusEventDto toStatusEvent(DomainEvent event) {
+        Map<String, Object> payload = event.payload();
+        return new BookingStatusEventDto(
+                event.id(),
+                event.type().name(),
+                event.aggregateId(),
+                asLong(payload.get("itemId")),
+                asLong(payload.get("ownerId")),
+                asLong(payload.get("bookerId")),
+                BookingStatus.valueOf((String) payload.get("status"))
+        );
+    }
+
+    private static Long asLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+}
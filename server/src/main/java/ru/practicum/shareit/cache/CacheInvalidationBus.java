@@ -0,0 +1,131 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Шина сброса локальных кэшей между узлами сервера.
+ * Сервисы сообщают об изменённых сущностях через {@link #publish}; внутри транзакции ключи копятся
+ * и уходят одним сообщением после фиксации (при откате — отбрасываются), чтобы другой узел не
+ * перечитал старые данные до фиксации. Сообщения других узлов передаются всем
+ * {@link CacheInvalidationListener}; собственные кэши узел обновляет сам и свои сообщения не применяет.
+ * Доставка зависит от {@link InvalidationTransport} и не гарантирована (сбой транспорта или падение
+ * узла сразу после фиксации теряют сообщение), поэтому кэши должны ограничивать устаревание и своим сроком жизни.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+    private final InvalidationTransport transport;
+    private final List<CacheInvalidationListener> listeners;
+    @Getter
+    private final String nodeId;
+    private final Map<CacheRegion, Counter> published = new EnumMap<>(CacheRegion.class);
+    private final Map<CacheRegion, Counter> received = new EnumMap<>(CacheRegion.class);
+    private final Counter sendFailures;
+
+    public CacheInvalidationBus(InvalidationTransport transport,
+                                List<CacheInvalidationListener> listeners,
+                                ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${shareit.cache.invalidation.node-id:}") String nodeId) {
+        this.transport = transport;
+        this.listeners = listeners;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId.trim();
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        for (CacheRegion region : CacheRegion.values()) {
+            published.put(region, Counter.builder("shareit.cache.invalidation.published")
+                    .description("Ключи, отправленные другим узлам для сброса")
+                    .tag("region", region.name())
+                    .register(registry));
+            received.put(region, Counter.builder("shareit.cache.invalidation.received")
+                    .description("Ключи, полученные от других узлов и сброшенные в локальных кэшах")
+                    .tag("region", region.name())
+                    .register(registry));
+        }
+        this.sendFailures = Counter.builder("shareit.cache.invalidation.send-failures")
+                .description("Отправки сброса узлам, завершившиеся ошибкой")
+                .register(registry);
+        transport.subscribe(this::receive);
+    }
+
+    /**
+     * Сообщает другим узлам, что сущность изменена. Внутри транзакции — после её фиксации.
+     */
+    public void publish(CacheRegion region, Long id) {
+        InvalidationMessage.Key key = new InvalidationMessage.Key(region, id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(key));
+            return;
+        }
+        PendingKeys pending = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(synchronization -> synchronization instanceof PendingKeys keys && keys.bus() == this)
+                .map(PendingKeys.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    PendingKeys keys = new PendingKeys();
+                    TransactionSynchronizationManager.registerSynchronization(keys);
+                    return keys;
+                });
+        pending.keys.add(key);
+    }
+
+    private void send(List<InvalidationMessage.Key> keys) {
+        int failures = transport.send(new InvalidationMessage(nodeId, keys));
+        keys.forEach(key -> published.get(key.region()).increment());
+        if (failures > 0) {
+            sendFailures.increment(failures);
+            log.warn("Сброс {} ключей кэшей не доставлен: {} ошибок отправки", keys.size(), failures);
+        }
+    }
+
+    private void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.origin())) {
+            return; // Свои изменения узел уже учёл в кэшах
+        }
+        for (InvalidationMessage.Key key : message.keys()) {
+            received.get(key.region()).increment();
+            for (CacheInvalidationListener listener : listeners) {
+                if (!listener.supports(key.region())) {
+                    continue;
+                }
+                try {
+                    listener.invalidate(key.region(), key.id());
+                } catch (RuntimeException e) {
+                    log.warn("Кэш {} не сбросил ключ {}", listener.getClass().getSimpleName(), key, e);
+                }
+            }
+        }
+        log.debug("Сброшено {} ключей кэшей по сообщению узла {}", message.keys().size(), message.origin());
+    }
+
+    /**
+     * Ключи, изменённые текущей транзакцией; отправляются одним сообщением после фиксации.
+     */
+    private final class PendingKeys implements TransactionSynchronization {
+        private final Set<InvalidationMessage.Key> keys = new LinkedHashSet<>();
+
+        CacheInvalidationBus bus() {
+            return CacheInvalidationBus.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            send(new ArrayList<>(keys));
+        }
+    }
+}
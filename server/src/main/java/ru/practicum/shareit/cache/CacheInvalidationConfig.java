@@ -0,0 +1,38 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Выбор транспорта сброса кэшей: shareit.cache.invalidation.transport = loopback (по умолчанию, один узел)
+ * или udp (узлы из shareit.cache.invalidation.udp.peers в виде host:port через запятую).
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Bean
+    public InvalidationTransport invalidationTransport(
+            @Value("${shareit.cache.invalidation.transport:loopback}") String transport,
+            @Value("${shareit.cache.invalidation.udp.bind-address:0.0.0.0}") String bindAddress,
+            @Value("${shareit.cache.invalidation.udp.port:9191}") int port,
+            @Value("${shareit.cache.invalidation.udp.peers:}") List<String> peers) {
+        return switch (transport) {
+            case "udp" -> new UdpInvalidationTransport(new InetSocketAddress(bindAddress, port),
+                    peers.stream().filter(peer -> !peer.isBlank()).map(CacheInvalidationConfig::parsePeer).toList());
+            default -> new LoopbackInvalidationTransport();
+        };
+    }
+
+    private static InetSocketAddress parsePeer(String peer) {
+        String trimmed = peer.trim();
+        int colon = trimmed.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Узел сброса кэшей должен быть в виде host:port: " + peer);
+        }
+        return new InetSocketAddress(trimmed.substring(0, colon), Integer.parseInt(trimmed.substring(colon + 1)));
+    }
+}
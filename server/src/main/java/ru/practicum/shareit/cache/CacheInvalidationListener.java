@@ -0,0 +1,17 @@
+package ru.practicum.shareit.cache;
+
+/**
+ * Локальный кэш, который сбрасывает записи по сообщениям от других узлов.
+ * Вызывается в потоке транспорта, поэтому должен быть потокобезопасным и не блокировать надолго.
+ */
+public interface CacheInvalidationListener {
+
+    /**
+     * Нужны ли кэшу ключи этой области.
+     */
+    default boolean supports(CacheRegion region) {
+        return true;
+    }
+
+    void invalidate(CacheRegion region, Long id);
+}
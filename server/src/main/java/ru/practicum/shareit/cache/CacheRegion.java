@@ -0,0 +1,12 @@
+package ru.practicum.shareit.cache;
+
+/**
+ * Область локальных кэшей сервера, к которой относится ключ сообщения о сбросе.
+ */
+public enum CacheRegion {
+    USER,           // Пользователь по id
+    ITEM,           // Предмет по id (включая агрегаты комментариев)
+    BOOKING,        // Бронирование по id
+    ITEM_BOOKINGS,  // Бронирования предмета по id предмета (календарь доступности)
+    OWNER_BOOKINGS  // Бронирования вещей владельца по id владельца (счётчики)
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.cache;
+
+import java.util.List;
+
+/**
+ * Сообщение о сбросе: ключи, изменённые одной транзакцией на узле origin.
+ * Несёт только ключи, без значений, поэтому повтор и перестановка сообщений безвредны.
+ *
+ * @param origin идентификатор узла-отправителя (свои сообщения узел не применяет)
+ * @param keys   изменённые ключи
+ */
+public record InvalidationMessage(String origin, List<Key> keys) {
+
+    public record Key(CacheRegion region, Long id) {
+    }
+}
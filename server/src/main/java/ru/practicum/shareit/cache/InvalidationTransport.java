@@ -0,0 +1,27 @@
+package ru.practicum.shareit.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Транспорт сообщений о сбросе между узлами сервера.
+ * Доставка «не более одного раза»: сообщение может быть потеряно, но транспорт не должен блокировать
+ * отправителя надолго. Сообщения отправителя тоже могут вернуться подписчику — их отсеивает шина по origin.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /**
+     * Отправляет сообщение всем узлам. Ошибка доставки одному узлу не прерывает рассылку остальным.
+     *
+     * @return число неудавшихся отправок (узел × датаграмма)
+     */
+    int send(InvalidationMessage message);
+
+    /**
+     * Регистрирует получателя сообщений от узлов.
+     */
+    void subscribe(Consumer<InvalidationMessage> subscriber);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Транспорт внутри JVM: сообщение синхронно передаётся всем подписчикам в потоке отправителя.
+ * Для одного узла это транспорт по умолчанию (свои сообщения шина не применяет, так что сброса нет);
+ * в тестах несколько шин на одном экземпляре изображают несколько узлов.
+ */
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+    private final List<Consumer<InvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public int send(InvalidationMessage message) {
+        subscribers.forEach(subscriber -> subscriber.accept(message));
+        return 0;
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Транспорт на UDP-датаграммах: каждое сообщение отправляется каждому узлу из списка peers.
+ * Без подтверждений и повторов: датаграмма может потеряться, прийти дважды или не по порядку.
+ * Ошибка отправки одному узлу не прерывает рассылку остальным узлам и остальных датаграмм.
+ * Формат — текст UTF-8: первая строка «v1 origin», далее по строке «REGION id» на ключ;
+ * в одной датаграмме не больше MAX_KEYS ключей, чтобы она оставалась заметно меньше 64 КБ.
+ */
+@Slf4j
+public class UdpInvalidationTransport implements InvalidationTransport {
+    static final int MAX_KEYS = 256;
+    private static final String VERSION = "v1";
+    private static final int MAX_DATAGRAM = 65_507;
+
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> peers;
+    private final List<Consumer<InvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+    private final Thread receiver;
+
+    public UdpInvalidationTransport(InetSocketAddress bindAddress, List<InetSocketAddress> peers) {
+        try {
+            this.socket = new DatagramSocket(bindAddress);
+        } catch (SocketException e) {
+            throw new UncheckedIOException("Не удалось открыть UDP-порт сброса кэшей " + bindAddress, e);
+        }
+        this.peers = List.copyOf(peers);
+        this.receiver = Thread.ofPlatform()
+                .daemon()
+                .name("cache-invalidation-udp")
+                .start(this::receive);
+        log.info("Сброс кэшей по UDP: порт {}, узлов {}", socket.getLocalPort(), this.peers.size());
+    }
+
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public int send(InvalidationMessage message) {
+        List<InvalidationMessage.Key> keys = message.keys();
+        int failures = 0;
+        for (int from = 0; from < keys.size(); from += MAX_KEYS) {
+            byte[] data = encode(message.origin(), keys.subList(from, Math.min(keys.size(), from + MAX_KEYS)));
+            for (InetSocketAddress peer : peers) {
+                try {
+                    socket.send(new DatagramPacket(data, data.length, peer));
+                } catch (IOException e) {
+                    failures++;
+                    log.warn("Не удалось отправить сброс кэшей узлу {}", peer, e);
+                }
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void close() {
+        socket.close(); // receive() завершится SocketException, поток приёма закончится
+        receiver.interrupt();
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Ошибка приёма сброса кэшей", e);
+                }
+                continue;
+            }
+            InvalidationMessage message = decode(new String(packet.getData(), 0, packet.getLength(),
+                    StandardCharsets.UTF_8));
+            if (message == null) {
+                log.warn("Некорректная датаграмма сброса кэшей от {}", packet.getSocketAddress());
+                continue;
+            }
+            for (Consumer<InvalidationMessage> subscriber : subscribers) {
+                try {
+                    subscriber.accept(message);
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось применить сброс кэшей от {}", message.origin(), e);
+                }
+            }
+        }
+    }
+
+    private static byte[] encode(String origin, List<InvalidationMessage.Key> keys) {
+        StringBuilder text = new StringBuilder(VERSION).append(' ').append(origin);
+        for (InvalidationMessage.Key key : keys) {
+            text.append('\n').append(key.region().name()).append(' ').append(key.id());
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Разбирает датаграмму; null, если формат не распознан.
+     */
+    static InvalidationMessage decode(String text) {
+        String[] lines = text.split("\n");
+        String[] header = lines[0].split(" ", 2);
+        if (header.length != 2 || !VERSION.equals(header[0])) {
+            return null;
+        }
+        List<InvalidationMessage.Key> keys = new ArrayList<>(lines.length - 1);
+        try {
+            for (int i = 1; i < lines.length; i++) {
+                String[] parts = lines[i].split(" ");
+                if (parts.length != 2) {
+                    return null;
+                }
+                keys.add(new InvalidationMessage.Key(CacheRegion.valueOf(parts[0]), Long.valueOf(parts[1])));
+            }
+        } catch (IllegalArgumentException e) {
+            return null; // Неизвестная область (узел новее) или некорректный id
+        }
+        return new InvalidationMessage(header[1], keys);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.comment.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.item.dto.ResponseItemDto;
@@ -10,7 +11,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class CommentDto {
     private Long id;
-    private ResponseItemDto item;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ResponseItemDto item; // Не заполняется в комментариях внутри карточки предмета и в их страницах
     private String authorName;
     private String text;
     private LocalDateTime created;
@@ -16,20 +16,21 @@ import java.util.stream.Collectors;
  * Обеспечивает маппинг:
  * - CreateCommentDto → Comment (при создании комментария);
  * - Comment → CommentDto (при возврате данных клиенту);
- * - List<Comment> → List<CommentDto> (при возврате списка комментариев).
+ * - List<Comment> → List<CommentDto> (при возврате списка комментариев);
+ * - Comment → CommentDto без копии предмета (комментарии в карточке предмета и их страницы).
  */
 public class CommentMapper {
 
     /**
      * Преобразует DTO создания комментария в сущность Comment.
      */
-    public static Comment toComment(CreateCommentDto dto, Item item, User user) {
+    public static Comment toComment(CreateCommentDto dto, Item item, User user, LocalDateTime created) {
         Comment comment = new Comment();
 
         comment.setText(dto.getText());
         comment.setUser(user);
         comment.setItem(item);
-        comment.setCreated(LocalDateTime.now());
+        comment.setCreated(created);
 
         return comment;
     }
@@ -47,6 +48,21 @@ public class CommentMapper {
         );
     }
 
+    /**
+     * Преобразует комментарии предмета в DTO без вложенной копии самого предмета.
+     */
+    public static List<CommentDto> toItemCommentDto(List<Comment> comments) {
+        return comments.stream()
+                .map(comment -> new CommentDto(
+                        comment.getId(),
+                        null,
+                        comment.getUser().getName(),
+                        comment.getText(),
+                        comment.getCreated()
+                ))
+                .toList();
+    }
+
     /**
      * Преобразует список сущностей Comment в список DTO для передачи клиенту.
      */
@@ -30,4 +30,8 @@ public class Comment {
 
     @Column(name = "created")
     private LocalDateTime created;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
@@ -1,11 +1,22 @@
 package ru.practicum.shareit.comment.storage;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.comment.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItem(Item item);
+    /**
+     * Последние комментарии предмета (новые первыми) вместе с авторами.
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Comment> findByItemIdOrderByIdDesc(Long itemId, Limit limit);
+
+    /**
+     * Следующая страница комментариев предмета: комментарии старше курсора (id меньше cursor), новые первыми.
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Comment> findByItemIdAndIdLessThanOrderByIdDesc(Long itemId, Long cursor, Limit limit);
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Конфигурация единого источника времени для сервера.
+ * Все зависящие от времени операции (фильтры CURRENT/PAST/FUTURE, даты создания запросов и комментариев)
+ * берут текущий момент из бина Clock, а не из LocalDateTime.now().
+ * Свойство shareit.clock.fixed (ISO‑формат, например 2026-01-01T12:00:00) фиксирует время —
+ * для воспроизводимых тестов и бенчмарков.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock(@Value("${shareit.clock.fixed:}") String fixedTime) {
+        return fixedTime.isBlank() ? Clock.systemDefaultZone() : fixedAt(LocalDateTime.parse(fixedTime));
+    }
+
+    /**
+     * Создаёт часы, всегда возвращающие указанный момент.
+     * Пригодны для JMH‑бенчмарков и тестов, где сервисы собираются без Spring‑контекста.
+     */
+    public static Clock fixedAt(LocalDateTime time) {
+        ZoneId zone = ZoneId.systemDefault();
+        return Clock.fixed(time.atZone(zone).toInstant(), zone);
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Бинарный формат Smile для внутреннего канала шлюз → сервер.
+ * Отдаётся только при Accept: application/x-jackson-smile, иначе ответы остаются в JSON.
+ * Маппер копируется с основного ObjectMapper, поэтому даты и прочие настройки совпадают с JSON.
+ */
+@Configuration
+public class SmileConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+}
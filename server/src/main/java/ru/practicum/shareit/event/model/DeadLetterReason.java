@@ -0,0 +1,9 @@
+package ru.practicum.shareit.event.model;
+
+/**
+ * Причина переноса события в outbox_dead_letters.
+ */
+public enum DeadLetterReason {
+    ATTEMPTS_EXHAUSTED, // Потребители не обработали событие за maxAttempts попыток
+    BAD_PAYLOAD         // Сохранённый payload не разбирается — повтор не поможет
+}
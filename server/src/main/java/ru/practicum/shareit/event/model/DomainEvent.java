@@ -0,0 +1,20 @@
+package ru.practicum.shareit.event.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Доменное событие в том виде, в котором оно передаётся потребителям.
+ *
+ * @param id          идентификатор записи outbox (растёт в порядке публикации)
+ * @param type        тип события
+ * @param aggregateId идентификатор изменённой сущности (бронирования, предмета, комментария)
+ * @param payload     атрибуты события
+ * @param created     время публикации
+ */
+public record DomainEvent(Long id,
+                          EventType type,
+                          Long aggregateId,
+                          Map<String, Object> payload,
+                          LocalDateTime created) {
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.event.model;
+
+/**
+ * Типы доменных событий, публикуемых через outbox.
+ */
+public enum EventType {
+    BOOKING_CREATED,
+    BOOKING_APPROVED,
+    BOOKING_REJECTED,
+    BOOKING_CANCELED,
+    ITEM_CREATED,
+    ITEM_UPDATED,
+    COMMENT_POSTED
+}
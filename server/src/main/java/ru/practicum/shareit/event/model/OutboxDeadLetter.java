@@ -0,0 +1,43 @@
+package ru.practicum.shareit.event.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие, исчерпавшее попытки доставки или с неразборчивым payload. Хранится для разбора
+ * и ручной повторной публикации; id совпадает с id записи outbox.
+ */
+@Entity
+@Table(name = "outbox_dead_letters", schema = "public")
+@Getter
+@Setter
+public class OutboxDeadLetter {
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private EventType eventType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+
+    @Column(name = "failed_consumers")
+    private String failedConsumers; // Потребители, не обработавшие событие, через запятую
+
+    @Column(name = "dead_at")
+    private LocalDateTime deadAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason")
+    private DeadLetterReason reason;
+}
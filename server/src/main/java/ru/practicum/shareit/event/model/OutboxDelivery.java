@@ -0,0 +1,43 @@
+package ru.practicum.shareit.event.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Исход доставки события одному потребителю: обработал ли он событие и сколько раз не смог.
+ * Заводится, только когда доставка события кому-то не удалась, и удаляется вместе с событием.
+ */
+@Entity
+@Table(name = "outbox_deliveries", schema = "public")
+@IdClass(OutboxDelivery.Key.class)
+@Getter
+@Setter
+public class OutboxDelivery {
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Id
+    @Column(name = "consumer")
+    private String consumer;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "delivered")
+    private boolean delivered;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long eventId;
+        private String consumer;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.event.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись outbox: событие, сохранённое в одной транзакции с изменением данных
+ * и ожидающее доставки потребителям.
+ */
+@Entity
+@Table(name = "outbox_events", schema = "public")
+@Getter
+@Setter
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private EventType eventType;
+
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(name = "payload")
+    private String payload;
+
+    @Column(name = "created")
+    private LocalDateTime created;
+
+    @Column(name = "attempts")
+    private int attempts;
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.event.service;
+
+import ru.practicum.shareit.event.model.DomainEvent;
+import ru.practicum.shareit.event.model.EventType;
+
+import java.util.List;
+
+/**
+ * Потребитель доменных событий. Получает события пачками в порядке публикации.
+ * Доставка «как минимум один раз»: пачка, которую потребитель не обработал, повторяется для него целиком
+ * (другим потребителям, уже обработавшим её события, она не повторяется), поэтому обработка
+ * должна быть идемпотентной. Потребитель определяется простым именем класса — его исходы хранятся в outbox_deliveries.
+ */
+public interface DomainEventConsumer {
+
+    /**
+     * Нужны ли потребителю события этого типа.
+     */
+    default boolean supports(EventType type) {
+        return true;
+    }
+
+    void consume(List<DomainEvent> events);
+}
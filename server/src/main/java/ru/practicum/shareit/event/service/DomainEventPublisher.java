@@ -0,0 +1,67 @@
+package ru.practicum.shareit.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.event.model.OutboxEvent;
+import ru.practicum.shareit.event.storage.OutboxEventRepository;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Публикует доменные события в outbox в рамках текущей транзакции.
+ * Событие становится видимым для {@link OutboxDispatcher} только после фиксации изменений,
+ * а при откате исчезает вместе с ними.
+ */
+@Component
+public class DomainEventPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Map<EventType, Counter> published = new EnumMap<>(EventType.class);
+
+    public DomainEventPublisher(OutboxEventRepository outboxEventRepository,
+                                ObjectMapper objectMapper,
+                                Clock clock,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        for (EventType type : EventType.values()) {
+            published.put(type, Counter.builder("shareit.events.published")
+                    .tag("type", type.name())
+                    .register(registry));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(EventType type, Long aggregateId, Map<String, Object> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateId(aggregateId);
+        event.setPayload(toJson(payload));
+        event.setCreated(LocalDateTime.now(clock));
+        outboxEventRepository.save(event);
+        published.get(type).increment();
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Не удалось сериализовать событие", e);
+        }
+    }
+}
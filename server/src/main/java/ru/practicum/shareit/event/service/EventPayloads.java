@@ -0,0 +1,49 @@
+package ru.practicum.shareit.event.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Формирование атрибутов доменных событий из сущностей.
+ * В событие попадают только идентификаторы и простые значения, без вложенных сущностей.
+ */
+public final class EventPayloads {
+
+    private EventPayloads() {
+    }
+
+    public static Map<String, Object> booking(Booking booking) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("bookingId", booking.getId());
+        payload.put("itemId", booking.getItem().getId());
+        payload.put("ownerId", booking.getItem().getOwner().getId());
+        payload.put("bookerId", booking.getBooker().getId());
+        payload.put("status", booking.getStatus().name());
+        payload.put("start", booking.getStart());
+        payload.put("end", booking.getEnd());
+        return payload;
+    }
+
+    public static Map<String, Object> item(Item item) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("itemId", item.getId());
+        payload.put("ownerId", item.getOwner().getId());
+        payload.put("name", item.getName());
+        payload.put("available", item.getAvailable());
+        payload.put("requestId", item.getRequest() != null ? item.getRequest().getId() : null);
+        return payload;
+    }
+
+    public static Map<String, Object> comment(Comment comment) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("commentId", comment.getId());
+        payload.put("itemId", comment.getItem().getId());
+        payload.put("authorId", comment.getUser().getId());
+        payload.put("created", comment.getCreated());
+        return payload;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.event.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.event.model.DomainEvent;
+
+import java.util.List;
+
+/**
+ * Пишет доставленные события в лог (уровень DEBUG).
+ */
+@Slf4j
+@Component
+public class LoggingEventConsumer implements DomainEventConsumer {
+
+    @Override
+    public void consume(List<DomainEvent> events) {
+        if (log.isDebugEnabled()) {
+            events.forEach(event -> log.debug("Событие {} #{} {}", event.type(), event.aggregateId(), event.payload()));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.event.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодически запускает доставку событий из outbox в фоновом потоке планировщика.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.events.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatchScheduler {
+    private final OutboxDispatcher outboxDispatcher;
+
+    @Scheduled(fixedDelayString = "${shareit.events.dispatch-delay-ms:200}")
+    public void dispatch() {
+        outboxDispatcher.dispatch();
+    }
+}
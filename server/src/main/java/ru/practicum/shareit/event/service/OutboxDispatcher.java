@@ -0,0 +1,294 @@
+package ru.practicum.shareit.event.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+import ru.practicum.shareit.event.model.DeadLetterReason;
+import ru.practicum.shareit.event.model.DomainEvent;
+import ru.practicum.shareit.event.model.OutboxDeadLetter;
+import ru.practicum.shareit.event.model.OutboxDelivery;
+import ru.practicum.shareit.event.model.OutboxEvent;
+import ru.practicum.shareit.event.storage.OutboxDeadLetterRepository;
+import ru.practicum.shareit.event.storage.OutboxDeliveryRepository;
+import ru.practicum.shareit.event.storage.OutboxEventRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Доставляет события из outbox потребителям вне пути обработки запросов.
+ * За один проход выбирает не более maxBatches пачек по batchSize событий: объём работы ограничен,
+ * а избыток остаётся в таблице до следующего прохода. Каждая пачка обрабатывается в отдельной транзакции,
+ * её строки блокируются с SKIP LOCKED: несколько узлов разбирают outbox параллельно, не доставляя
+ * одно событие дважды. Доставленные всем потребителям события удаляются. Если потребитель не обработал
+ * пачку, для её событий запоминается, какие потребители уже справились (при повторе событие получат
+ * только остальные), счётчик попыток события растёт, и проход прерывается. Событие, не доставленное
+ * за maxAttempts попыток, переносится в outbox_dead_letters. Событие, payload которого не разбирается,
+ * переносится туда сразу, не задерживая остальные события пачки.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+    private final List<DomainEventConsumer> consumers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final MeterRegistry registry;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int maxAttempts;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Timer lag;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxDeliveryRepository outboxDeliveryRepository,
+                            OutboxDeadLetterRepository outboxDeadLetterRepository,
+                            List<DomainEventConsumer> consumers,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            Clock clock,
+                            ObjectProvider<MeterRegistry> meterRegistry,
+                            @Value("${shareit.events.batch-size:100}") int batchSize,
+                            @Value("${shareit.events.max-batches-per-run:10}") int maxBatches,
+                            @Value("${shareit.events.max-attempts:5}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeliveryRepository = outboxDeliveryRepository;
+        this.outboxDeadLetterRepository = outboxDeadLetterRepository;
+        this.consumers = consumers;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.maxAttempts = maxAttempts;
+        Gauge.builder("shareit.events.backlog", backlog, AtomicLong::get)
+                .description("События в outbox, ожидающие доставки")
+                .register(registry);
+        this.lag = Timer.builder("shareit.events.lag")
+                .description("Время от публикации события до доставки")
+                .register(registry);
+    }
+
+    /**
+     * Один проход доставки. Возвращает число доставленных событий.
+     */
+    public int dispatch() {
+        int delivered = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            BatchResult result = transactionTemplate.execute(status -> dispatchBatch());
+            if (result == null) {
+                break;
+            }
+            delivered += result.delivered();
+            if (result.failed() || result.size() < batchSize) {
+                break;
+            }
+        }
+        backlog.set(outboxEventRepository.countPending(maxAttempts));
+        if (delivered > 0) {
+            log.debug("Доставлено событий: {}, в очереди: {}", delivered, backlog.get());
+        }
+        return delivered;
+    }
+
+    /**
+     * Доставляет одну заблокированную пачку и сохраняет исходы. Вызывается внутри транзакции.
+     */
+    private BatchResult dispatchBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return new BatchResult(0, 0, false);
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<OutboxEvent> readable = new ArrayList<>(batch.size());
+        List<DomainEvent> events = new ArrayList<>(batch.size());
+        List<OutboxDeadLetter> unreadable = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                events.add(toDomainEvent(event));
+                readable.add(event);
+            } catch (JsonProcessingException e) {
+                log.error("Некорректный payload события {} в outbox, перенесено в outbox_dead_letters",
+                        event.getId(), e);
+                unreadable.add(toDeadLetter(event, DeadLetterReason.BAD_PAYLOAD, Map.of(), now));
+            }
+        }
+        Map<Long, Map<String, OutboxDelivery>> deliveries = loadDeliveries(readable);
+        Map<Long, Map<String, Boolean>> outcomes = deliver(events, deliveries);
+
+        List<Long> done = new ArrayList<>();
+        int retried = 0;
+        List<OutboxDeadLetter> exhausted = new ArrayList<>();
+        List<OutboxDelivery> changed = new ArrayList<>();
+        for (OutboxEvent event : readable) {
+            Map<String, Boolean> eventOutcomes = outcomes.getOrDefault(event.getId(), Map.of());
+            if (!eventOutcomes.containsValue(false)) {
+                done.add(event.getId());
+                lag.record(Duration.between(event.getCreated(), now));
+            } else if (event.getAttempts() + 1 >= maxAttempts) {
+                exhausted.add(toDeadLetter(event, DeadLetterReason.ATTEMPTS_EXHAUSTED, eventOutcomes, now));
+            } else {
+                event.setAttempts(event.getAttempts() + 1); // Строка заблокирована и сохранится при фиксации
+                retried++;
+                eventOutcomes.forEach((consumer, delivered) ->
+                        changed.add(record(deliveries, event.getId(), consumer, delivered)));
+            }
+        }
+        outboxDeliveryRepository.saveAll(changed);
+        if (!exhausted.isEmpty()) {
+            log.error("Событий не доставлено за {} попыток, перенесены в outbox_dead_letters: {}",
+                    maxAttempts, exhausted.stream().map(OutboxDeadLetter::getId).toList());
+        }
+        List<OutboxDeadLetter> dead = new ArrayList<>(unreadable);
+        dead.addAll(exhausted);
+        if (!dead.isEmpty()) {
+            outboxDeadLetterRepository.saveAll(dead);
+            dead.forEach(letter -> Counter.builder("shareit.events.dead-lettered")
+                    .description("События, перенесённые в outbox_dead_letters")
+                    .tag("reason", letter.getReason().name())
+                    .register(registry)
+                    .increment());
+        }
+        List<Long> removed = new ArrayList<>(done);
+        dead.forEach(letter -> removed.add(letter.getId()));
+        if (!removed.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(removed); // Строки outbox_deliveries удаляются каскадом
+        }
+        return new BatchResult(batch.size(), done.size(), retried > 0 || !exhausted.isEmpty());
+    }
+
+    /**
+     * Передаёт события потребителям, которые их ещё не обработали.
+     * Возвращает исходы: id события → (потребитель → обработал ли он событие в этот раз).
+     */
+    private Map<Long, Map<String, Boolean>> deliver(List<DomainEvent> events,
+                                                    Map<Long, Map<String, OutboxDelivery>> deliveries) {
+        Map<Long, Map<String, Boolean>> outcomes = new HashMap<>();
+        for (DomainEventConsumer consumer : consumers) {
+            String name = nameOf(consumer);
+            List<DomainEvent> pending = events.stream()
+                    .filter(event -> consumer.supports(event.type()))
+                    .filter(event -> !isDelivered(deliveries, event.id(), name))
+                    .toList();
+            if (pending.isEmpty()) {
+                continue;
+            }
+            Timer.Sample sample = Timer.start(registry);
+            boolean success;
+            try {
+                consumer.consume(pending);
+                sample.stop(registry.timer("shareit.events.consume", "consumer", name));
+                Counter.builder("shareit.events.delivered").tag("consumer", name).register(registry)
+                        .increment(pending.size());
+                success = true;
+            } catch (RuntimeException e) {
+                success = false;
+                Counter.builder("shareit.events.failed").tag("consumer", name).register(registry)
+                        .increment(pending.size());
+                log.warn("Потребитель {} не обработал пачку из {} событий", name, pending.size(), e);
+            }
+            for (DomainEvent event : pending) {
+                outcomes.computeIfAbsent(event.id(), id -> new LinkedHashMap<>()).put(name, success);
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Исходы прошлых попыток: только у событий, доставка которых уже не удавалась.
+     */
+    private Map<Long, Map<String, OutboxDelivery>> loadDeliveries(List<OutboxEvent> batch) {
+        List<Long> retried = batch.stream()
+                .filter(event -> event.getAttempts() > 0)
+                .map(OutboxEvent::getId)
+                .toList();
+        if (retried.isEmpty()) {
+            return Map.of();
+        }
+        return outboxDeliveryRepository.findAllByEventIdIn(retried).stream()
+                .collect(Collectors.groupingBy(OutboxDelivery::getEventId,
+                        Collectors.toMap(OutboxDelivery::getConsumer, delivery -> delivery)));
+    }
+
+    private static boolean isDelivered(Map<Long, Map<String, OutboxDelivery>> deliveries, Long eventId,
+                                       String consumer) {
+        OutboxDelivery delivery = deliveries.getOrDefault(eventId, Map.of()).get(consumer);
+        return delivery != null && delivery.isDelivered();
+    }
+
+    private static OutboxDelivery record(Map<Long, Map<String, OutboxDelivery>> deliveries, Long eventId,
+                                         String consumer, boolean delivered) {
+        OutboxDelivery delivery = deliveries.getOrDefault(eventId, Map.of()).get(consumer);
+        if (delivery == null) {
+            delivery = new OutboxDelivery();
+            delivery.setEventId(eventId);
+            delivery.setConsumer(consumer);
+        }
+        if (delivered) {
+            delivery.setDelivered(true);
+        } else {
+            delivery.setAttempts(delivery.getAttempts() + 1);
+        }
+        return delivery;
+    }
+
+    private static OutboxDeadLetter toDeadLetter(OutboxEvent event, DeadLetterReason reason,
+                                                 Map<String, Boolean> outcomes, LocalDateTime now) {
+        OutboxDeadLetter letter = new OutboxDeadLetter();
+        letter.setId(event.getId());
+        letter.setEventType(event.getEventType());
+        letter.setAggregateId(event.getAggregateId());
+        letter.setPayload(event.getPayload());
+        letter.setCreated(event.getCreated());
+        letter.setFailedConsumers(outcomes.entrySet().stream()
+                .filter(outcome -> !outcome.getValue())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.joining(",")));
+        letter.setDeadAt(now);
+        letter.setReason(reason);
+        return letter;
+    }
+
+    private static String nameOf(DomainEventConsumer consumer) {
+        return ClassUtils.getUserClass(consumer).getSimpleName();
+    }
+
+    private DomainEvent toDomainEvent(OutboxEvent event) throws JsonProcessingException {
+        return new DomainEvent(event.getId(), event.getEventType(), event.getAggregateId(),
+                objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE), event.getCreated());
+    }
+
+    /**
+     * Итог пачки: сколько событий выбрано, сколько доставлено всем потребителям и была ли ошибка.
+     */
+    private record BatchResult(int size, int delivered, boolean failed) {
+    }
+}
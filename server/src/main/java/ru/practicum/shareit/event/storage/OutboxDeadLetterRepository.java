@@ -0,0 +1,7 @@
+package ru.practicum.shareit.event.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.event.model.OutboxDeadLetter;
+
+public interface OutboxDeadLetterRepository extends JpaRepository<OutboxDeadLetter, Long> {
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.event.model.OutboxDelivery;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, OutboxDelivery.Key> {
+
+    List<OutboxDelivery> findAllByEventIdIn(Collection<Long> eventIds);
+}
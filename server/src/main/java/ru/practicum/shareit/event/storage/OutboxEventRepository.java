@@ -0,0 +1,35 @@
+package ru.practicum.shareit.event.storage;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.event.model.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Возвращает и блокирует (FOR UPDATE) очередную пачку недоставленных событий в порядке публикации.
+     * События, исчерпавшие попытки доставки, пропускаются. Строки, заблокированные другим узлом,
+     * пропускаются (SKIP LOCKED), а не ожидаются: узлы разбирают outbox параллельно, не доставляя
+     * одно событие дважды. Вызывать внутри транзакции; блокировка держится до её конца.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e " +
+            "WHERE e.attempts < :maxAttempts " +
+            "ORDER BY e.id ASC")
+    List<OutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    /**
+     * Количество событий, ожидающих доставки.
+     */
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.attempts < :maxAttempts")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+}
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.OwnerItemDto;
@@ -10,6 +13,7 @@ import ru.practicum.shareit.item.dto.ResponseItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.util.CustomHttpHeader;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -20,7 +24,7 @@ import java.util.List;
  * - получения информации о конкретном предмете;
  * - получения списка предметов владельца;
  * - поиска предметов по тексту;
- * - добавления комментариев к предметам.
+ * - добавления комментариев к предметам и постраничного получения комментариев.
  */
 @RestController
 @RequestMapping("/items")
@@ -49,9 +53,13 @@ public class ItemController {
 
     /**
      * Получает информацию о конкретном предмете.
+     * Отдаёт ETag; при совпадении с If-None-Match отвечает 304 без загрузки предмета и комментариев.
      */
     @GetMapping("/{itemId}")
-    public ResponseItemDto findById(@PathVariable("itemId") Long itemId) {
+    public ResponseItemDto findById(@PathVariable("itemId") Long itemId, WebRequest request) {
+        if (itemService.findETag(itemId).filter(request::checkNotModified).isPresent()) {
+            return null;
+        }
         return itemService.findById(itemId);
     }
 
@@ -65,10 +73,19 @@ public class ItemController {
 
     /**
      * Осуществляет поиск предметов по текстовому запросу.
+     * Если передан период start/end — только предметы, свободные в этом периоде.
      */
     @GetMapping("/search")
-    public List<ResponseItemDto> findBySearch(@RequestParam("text") String text) {
-        return itemService.findBySearch(text);
+    public List<ResponseItemDto> findBySearch(
+            @RequestParam("text") String text,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        if (start == null && end == null) {
+            return itemService.findBySearch(text);
+        }
+        return itemService.findBySearch(text, start, end);
     }
 
     /**
@@ -80,4 +97,21 @@ public class ItemController {
                                   @RequestHeader(CustomHttpHeader.USER_ID) Long userId) {
         return itemService.postComment(commentDto, itemId, userId);
     }
+
+    /**
+     * Страница комментариев предмета, новые первыми. Если страница заполнена,
+     * в X-Next-Cursor передаётся cursor следующей.
+     */
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> findComments(
+            @PathVariable("itemId") Long itemId,
+            @RequestParam(name = "cursor", required = false) Long cursor,
+            @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        List<CommentDto> comments = itemService.findComments(itemId, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!comments.isEmpty() && comments.size() == size) {
+            response.header(CustomHttpHeader.NEXT_CURSOR, String.valueOf(comments.getLast().getId()));
+        }
+        return response.body(comments);
+    }
 }
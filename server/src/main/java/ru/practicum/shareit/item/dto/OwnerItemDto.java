@@ -20,4 +20,6 @@ public class OwnerItemDto {
     private LocalDateTime lastEnd;
     private LocalDateTime nextStart;
     private LocalDateTime nextEnd;
+    private Long commentCount;
+    private LocalDateTime lastCommentAt;
 }
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.comment.dto.CommentDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,5 +21,15 @@ public class ResponseItemDto {
     private Boolean available;
     private BookingDto lastBooking;
     private BookingDto nextBooking;
-    private List<CommentDto> comments;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CommentDto> comments; // В карточке — последние N комментариев, в результатах поиска не заполняется
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long commentCount; // Всего комментариев: в карточке предмета и в результатах поиска
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime lastCommentAt;
+
+    public ResponseItemDto(Long id, String name, String description, Boolean available,
+                           BookingDto lastBooking, BookingDto nextBooking, List<CommentDto> comments) {
+        this(id, name, description, available, lastBooking, nextBooking, comments, null, null);
+    }
 }
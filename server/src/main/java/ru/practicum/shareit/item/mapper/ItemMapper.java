@@ -34,7 +34,10 @@ public class ItemMapper {
         );
     }
 
-    public static ResponseItemDto toResponseItemDto(Item item, List<Comment> comments) {
+    /**
+     * Карточка предмета: последние комментарии (без копии предмета в каждом) и агрегаты комментариев.
+     */
+    public static ResponseItemDto toResponseItemDto(Item item, List<Comment> recentComments) {
         return new ResponseItemDto(
                 item.getId(),
                 item.getName(),
@@ -42,7 +45,26 @@ public class ItemMapper {
                 item.getAvailable(),
                 null,
                 null,
-                CommentMapper.toCommentDto(comments)
+                CommentMapper.toItemCommentDto(recentComments),
+                item.getCommentCount(),
+                item.getLastCommentAt()
+        );
+    }
+
+    /**
+     * Предмет в списке (результаты поиска): вместо комментариев — только их агрегаты из строки предмета.
+     */
+    public static ResponseItemDto toItemWithCommentStats(Item item) {
+        return new ResponseItemDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                null,
+                null,
+                null,
+                item.getCommentCount(),
+                item.getLastCommentAt()
         );
     }
 
@@ -82,7 +104,9 @@ public class ItemMapper {
                 lastStart,
                 lastEnd,
                 nextStart,
-                nextEnd);
+                nextEnd,
+                item.getCommentCount(),
+                item.getLastCommentAt());
     }
 
     public static ItemDtoForRequestAnswer toItemDtoForRequestAnswer(Item item) {
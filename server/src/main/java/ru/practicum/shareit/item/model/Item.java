@@ -6,6 +6,8 @@ import lombok.Setter;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "items", schema = "public")
 @Getter
@@ -31,4 +33,16 @@ public class Item {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    // Агрегаты комментариев: меняются только атомарными UPDATE (ItemRepository.recordComment и сверка),
+    // поэтому не пишутся при сохранении сущности и не затираются устаревшими значениями
+    @Column(name = "comment_count", insertable = false, updatable = false)
+    private Long commentCount = 0L; // Совпадает со значением по умолчанию колонки для ещё не перечитанной новой строки
+
+    @Column(name = "last_comment_at", insertable = false, updatable = false)
+    private LocalDateTime lastCommentAt;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
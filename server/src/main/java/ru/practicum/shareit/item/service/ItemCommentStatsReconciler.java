@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+/**
+ * Сверяет агрегаты комментариев в строках предметов (comment_count, last_comment_at) с таблицей comments.
+ * Приращения из postComment теряться не должны, но изменения в обход сервиса (ручные правки, удаление
+ * комментариев, заполнение новых колонок на существующих данных) исправляются только здесь.
+ * Предметы обходятся диапазонами по chunkSize id, каждый диапазон — в отдельной короткой транзакции.
+ */
+@Slf4j
+@Component
+public class ItemCommentStatsReconciler {
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Counter repaired;
+
+    public ItemCommentStatsReconciler(ItemRepository itemRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      ObjectProvider<MeterRegistry> meterRegistry,
+                                      @Value("${shareit.items.comment-stats.chunk-size:1000}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.repaired = Counter.builder("shareit.items.comment-stats.repaired")
+                .description("Предметы, у которых сверка исправила агрегаты комментариев")
+                .register(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Один полный проход по предметам. Возвращает число исправленных строк.
+     */
+    public int reconcile() {
+        long maxId = itemRepository.findMaxId();
+        int total = 0;
+        for (long fromId = 0; fromId < maxId; fromId += chunkSize) {
+            long from = fromId;
+            Integer fixed = transactionTemplate.execute(
+                    status -> itemRepository.reconcileCommentStats(from, from + chunkSize));
+            total += fixed == null ? 0 : fixed;
+        }
+        repaired.increment(total);
+        if (total > 0) {
+            log.warn("Исправлены агрегаты комментариев у предметов: {}", total);
+        } else {
+            log.debug("Агрегаты комментариев сходятся");
+        }
+        return total;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Периодически запускает сверку агрегатов комментариев предметов.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.items.comment-stats.repair.enabled", havingValue = "true", matchIfMissing = true)
+public class ItemCommentStatsRepairScheduler {
+    private final ItemCommentStatsReconciler reconciler;
+
+    @Scheduled(fixedDelayString = "${shareit.items.comment-stats.repair.delay-ms:3600000}",
+            initialDelayString = "${shareit.items.comment-stats.repair.initial-delay-ms:60000}")
+    public void repair() {
+        reconciler.reconcile();
+    }
+}
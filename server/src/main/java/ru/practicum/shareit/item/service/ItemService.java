@@ -6,7 +6,9 @@ import ru.practicum.shareit.item.dto.OwnerItemDto;
 import ru.practicum.shareit.item.dto.RequestItemDto;
 import ru.practicum.shareit.item.dto.ResponseItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     ResponseItemDto create(RequestItemDto item, Long userId);
@@ -15,9 +17,15 @@ public interface ItemService {
 
     ResponseItemDto findById(Long itemId);
 
+    Optional<String> findETag(Long itemId);
+
     List<OwnerItemDto> findAllByOwner(Long ownerId);
 
     List<ResponseItemDto> findBySearch(String text);
 
+    List<ResponseItemDto> findBySearch(String text, LocalDateTime start, LocalDateTime end);
+
     CommentDto postComment(CreateCommentDto commentDto, Long itemId, Long userId);
+
+    List<CommentDto> findComments(Long itemId, Long cursor, int size);
 }
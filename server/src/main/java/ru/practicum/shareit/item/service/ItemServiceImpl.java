@@ -1,14 +1,21 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.CacheRegion;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.CreateCommentDto;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.storage.CommentRepository;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.event.service.DomainEventPublisher;
+import ru.practicum.shareit.event.service.EventPayloads;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.BookingPair;
@@ -23,8 +30,10 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Сервис для работы с предметами (items) в системе аренды.
@@ -33,16 +42,23 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int RECENT_COMMENTS = 10; // Комментариев в карточке предмета, остальные — через /comments
+    private static final int MAX_COMMENTS_PAGE = 100; // Максимальный размер страницы комментариев
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final Clock clock;
+    private final DomainEventPublisher eventPublisher;
+    private final CacheInvalidationBus invalidationBus;
 
     /**
      * Создаёт новый предмет.
      */
     @Override
+    @Transactional
     public ResponseItemDto create(RequestItemDto createItemDto, Long userId) {
         User user = getUser(userId);
 
@@ -52,14 +68,17 @@ public class ItemServiceImpl implements ItemService {
                 : itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Item request id not found"));
 
-        Item item = ItemMapper.toItem(createItemDto, null, user, request);
-        return ItemMapper.toResponseItemDto(itemRepository.save(item));
+        Item item = itemRepository.save(ItemMapper.toItem(createItemDto, null, user, request));
+        eventPublisher.publish(EventType.ITEM_CREATED, item.getId(), EventPayloads.item(item));
+        invalidationBus.publish(CacheRegion.ITEM, item.getId());
+        return ItemMapper.toResponseItemDto(item);
     }
 
     /**
      * Обновляет существующий предмет (только для владельца).
      */
     @Override
+    @Transactional
     public ResponseItemDto update(Long itemId, RequestItemDto newItemDto, Long userId) {
         Item oldItem = getItem(itemId);
         User user = getUser(userId);
@@ -70,22 +89,34 @@ public class ItemServiceImpl implements ItemService {
             );
         }
 
+        // Меняем загруженную сущность, а не сохраняем новую: так проверяется и увеличивается версия строки
         Item newItem = ItemMapper.toItem(newItemDto, itemId, user, oldItem.getRequest());
-        if (newItem.getName() == null) newItem.setName(oldItem.getName());
-        if (newItem.getDescription() == null) newItem.setDescription(oldItem.getDescription());
-        if (newItem.getAvailable() == null) newItem.setAvailable(oldItem.getAvailable());
-        if (newItem.getRequest() == null) newItem.setRequest(oldItem.getRequest());
+        if (newItem.getName() != null) oldItem.setName(newItem.getName());
+        if (newItem.getDescription() != null) oldItem.setDescription(newItem.getDescription());
+        if (newItem.getAvailable() != null) oldItem.setAvailable(newItem.getAvailable());
+
+        Item saved = itemRepository.save(oldItem);
+        eventPublisher.publish(EventType.ITEM_UPDATED, saved.getId(), EventPayloads.item(saved));
+        invalidationBus.publish(CacheRegion.ITEM, saved.getId());
+        return ItemMapper.toResponseItemDto(saved);
+    }
 
-        return ItemMapper.toResponseItemDto(itemRepository.save(newItem));
+    /**
+     * Возвращает ETag предмета: меняется при изменении предмета, его комментариев или их авторов.
+     */
+    @Override
+    public Optional<String> findETag(Long itemId) {
+        return itemRepository.findVersionTag(itemId).map(tag -> "\"i" + itemId + "." + tag + "\"");
     }
 
     /**
-     * Получает полный DTO предмета по ID (с бронированиями и комментариями).
+     * Получает карточку предмета по ID: последние RECENT_COMMENTS комментариев и агрегаты из строки предмета.
      */
     @Override
     public ResponseItemDto findById(Long itemId) {
         Item item = getItem(itemId);
-        return ItemMapper.toResponseItemDto(item, getComments(item));
+        List<Comment> recent = commentRepository.findByItemIdOrderByIdDesc(itemId, Limit.of(RECENT_COMMENTS));
+        return ItemMapper.toResponseItemDto(item, recent);
     }
 
     /**
@@ -107,11 +138,30 @@ public class ItemServiceImpl implements ItemService {
      */
     @Override
     public List<ResponseItemDto> findBySearch(String text) {
+        return findBySearch(text, null, null);
+    }
+
+    /**
+     * Ищет доступные предметы по текстовому запросу; если задан период [start, end) —
+     * только свободные в нём (без пересекающихся подтверждённых бронирований).
+     * Комментарии не загружаются: в результатах только их число и время последнего.
+     */
+    @Override
+    public List<ResponseItemDto> findBySearch(String text, LocalDateTime start, LocalDateTime end) {
         if (text.isEmpty()) return List.of();
 
-        return itemRepository.search(text).stream()
-                .filter(Item::getAvailable)
-                .map(item -> ItemMapper.toResponseItemDto(item, getComments(item)))
+        if ((start == null) != (end == null)) {
+            throw new ConditionsNotMetException("Период поиска должен содержать и начало, и окончание");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ConditionsNotMetException("Начало периода " + start + " должно быть раньше окончания " + end);
+        }
+
+        List<Item> items = start == null
+                ? itemRepository.search(text)
+                : itemRepository.searchFreeInPeriod(text, start, end);
+        return items.stream()
+                .map(ItemMapper::toItemWithCommentStats)
                 .toList();
     }
 
@@ -119,18 +169,39 @@ public class ItemServiceImpl implements ItemService {
      * Добавляет комментарий к предмету (только для пользователей, которые уже арендовали предмет).
      */
     @Override
+    @Transactional
     public CommentDto postComment(CreateCommentDto commentDto, Long itemId, Long userId) {
         Item item = getItem(itemId);
         User user = getUser(userId);
 
-        if (!bookingRepository.existsPastBookingForUser(itemId, userId)) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (!bookingRepository.existsPastBookingForUser(itemId, userId, now)) {
             throw new ConditionsNotMetException(
                     "Пользователь с id " + userId + " не пользовался вещью с id " + itemId
             );
         }
 
-        Comment comment = CommentMapper.toComment(commentDto, item, user);
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        Comment comment = commentRepository.save(CommentMapper.toComment(commentDto, item, user, now));
+        eventPublisher.publish(EventType.COMMENT_POSTED, comment.getId(), EventPayloads.comment(comment));
+        itemRepository.recordComment(itemId, comment.getCreated());
+        invalidationBus.publish(CacheRegion.ITEM, itemId); // Изменились агрегаты комментариев предмета
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    /**
+     * Страница комментариев предмета, новые первыми. cursor — id последнего комментария предыдущей страницы
+     * (null — первая страница).
+     */
+    @Override
+    public List<CommentDto> findComments(Long itemId, Long cursor, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Предмет с id " + itemId + " не найден");
+        }
+        Limit limit = Limit.of(Math.min(size, MAX_COMMENTS_PAGE));
+        List<Comment> comments = cursor == null
+                ? commentRepository.findByItemIdOrderByIdDesc(itemId, limit)
+                : commentRepository.findByItemIdAndIdLessThanOrderByIdDesc(itemId, cursor, limit);
+        return CommentMapper.toItemCommentDto(comments);
     }
 
     // Вспомогательные методы
@@ -145,18 +216,15 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
     }
 
-    private List<Comment> getComments(Item item) {
-        return commentRepository.findAllByItem(item);
-    }
-
     private BookingPair getLastAndNextBooking(Item item) {
         List<Booking> bookings = bookingRepository.findAllByItem(item);
+        LocalDateTime now = LocalDateTime.now(clock);
 
         Booking lastBooking = null;
         Booking nextBooking = null;
 
         for (Booking booking : bookings) {
-            if (booking.getStart().isAfter(LocalDateTime.now())) {
+            if (booking.getStart().isAfter(now)) {
                 nextBooking = booking; // следующее бронирование
                 break;
             }
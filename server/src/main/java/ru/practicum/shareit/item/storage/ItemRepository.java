@@ -1,11 +1,18 @@
 package ru.practicum.shareit.item.storage;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий для работы с сущностями Item (предметы) в базе данных.
@@ -22,16 +29,94 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerId(Long id);
 
     /**
-     * Осуществляет поиск предметов по текстовой строке в названии или описании.
+     * Возвращает идентификаторы предметов владельца в порядке возрастания.
+     */
+    @Query("SELECT it.id FROM Item it WHERE it.owner.id = ?1 ORDER BY it.id")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    /**
+     * Осуществляет поиск доступных предметов по текстовой строке в названии или описании.
      * Вне зависимости от регистра.
      */
     @Query("SELECT it FROM Item it " +
-            "WHERE UPPER(it.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
-            "   OR UPPER(it.description) LIKE UPPER(CONCAT('%', ?1, '%'))")
+            "WHERE it.available = TRUE " +
+            "  AND (UPPER(it.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
+            "   OR UPPER(it.description) LIKE UPPER(CONCAT('%', ?1, '%')))")
     List<Item> search(String text);
 
+    /**
+     * Поиск доступных предметов по тексту, у которых нет подтверждённых бронирований,
+     * пересекающихся с периодом [start, end). Исключение выполняется одним запросом (NOT EXISTS)
+     * по индексу idx_bookings_item_period.
+     */
+    @Query("SELECT it FROM Item it " +
+            "WHERE it.available = TRUE " +
+            "  AND (UPPER(it.name) LIKE UPPER(CONCAT('%', :text, '%')) " +
+            "   OR UPPER(it.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
+            "  AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "                  WHERE b.item = it " +
+            "                    AND b.status = 'APPROVED' " +
+            "                    AND b.start < :end " +
+            "                    AND b.end > :start)")
+    List<Item> searchFreeInPeriod(@Param("text") String text,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
+
     /**
      * Находит все предметы, привязанные к указанному запросу на бронирование.
      */
     List<Item> findAllByRequest(ItemRequest req);
+
+    /**
+     * Блокирует строки предметов до конца транзакции (в порядке id, чтобы избежать взаимных блокировок).
+     * Используется для атомарной проверки пересечений при подтверждении бронирований.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT it.id FROM Item it WHERE it.id IN :ids ORDER BY it.id")
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Метка версии карточки предмета для ETag: версия предмета, число и последний id комментариев,
+     * суммы версий комментариев и их авторов. Меняется при любом изменении, видимом в карточке.
+     */
+    @Query("SELECT CONCAT(CAST(it.version AS String), '.', CAST(COUNT(c) AS String), '.', " +
+            "       CAST(COALESCE(MAX(c.id), 0) AS String), '.', " +
+            "       CAST(COALESCE(SUM(c.version), 0) AS String), '.', " +
+            "       CAST(COALESCE(SUM(u.version), 0) AS String)) " +
+            "FROM Item it " +
+            "LEFT JOIN Comment c ON c.item = it " +
+            "LEFT JOIN c.user u " +
+            "WHERE it.id = :itemId " +
+            "GROUP BY it.id, it.version")
+    Optional<String> findVersionTag(@Param("itemId") Long itemId);
+
+    /**
+     * Учитывает новый комментарий в агрегатах предмета одним атомарным UPDATE (без увеличения версии строки).
+     * Контекст сохраняемости очищается, чтобы загруженный ранее предмет не показывал устаревшие агрегаты.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item it SET it.commentCount = it.commentCount + 1, " +
+            "    it.lastCommentAt = CASE WHEN it.lastCommentAt IS NULL OR it.lastCommentAt < :created " +
+            "                            THEN :created ELSE it.lastCommentAt END " +
+            "WHERE it.id = :itemId")
+    int recordComment(@Param("itemId") Long itemId, @Param("created") LocalDateTime created);
+
+    /**
+     * Пересчитывает агрегаты комментариев по таблице comments для предметов с id в (fromId, toId],
+     * у которых они разошлись. Возвращает число исправленных строк.
+     */
+    @Modifying
+    @Query("UPDATE Item it " +
+            "SET it.commentCount = (SELECT COUNT(c) FROM Comment c WHERE c.item.id = it.id), " +
+            "    it.lastCommentAt = (SELECT MAX(c.created) FROM Comment c WHERE c.item.id = it.id) " +
+            "WHERE it.id > :fromId AND it.id <= :toId " +
+            "  AND (it.commentCount <> (SELECT COUNT(c) FROM Comment c WHERE c.item.id = it.id) " +
+            "   OR it.lastCommentAt IS DISTINCT FROM (SELECT MAX(c.created) FROM Comment c WHERE c.item.id = it.id))")
+    int reconcileCommentStats(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Наибольший id предмета (0, если предметов нет).
+     */
+    @Query("SELECT COALESCE(MAX(it.id), 0) FROM Item it")
+    long findMaxId();
 }
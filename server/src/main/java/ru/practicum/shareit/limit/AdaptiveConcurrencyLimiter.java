@@ -0,0 +1,94 @@
+package ru.practicum.shareit.limit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Адаптивный лимит одновременных запросов (AIMD).
+ * Лимит меняется, только пока он используется хотя бы наполовину. Быстрее latencyThreshold — лимит растёт
+ * на 1/limit за ответ (примерно +1 за «круг» запросов). Медленный ответ или ошибка 5xx уменьшают лимит в backoff
+ * раз, но не чаще раза за latencyThreshold — одна задержка БД не должна обрушить лимит до минимума.
+ * Запросу класса c доступна доля лимита share(c): поиск и списки отклоняются раньше записей.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoff;
+    private final Map<RequestClass, Double> shares = new EnumMap<>(RequestClass.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit; // Меняется под блокировкой в onSample, читается без неё
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit,
+                                      int minLimit,
+                                      int maxLimit,
+                                      long latencyThresholdNanos,
+                                      double backoff,
+                                      double listingShare,
+                                      double searchShare) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoff = backoff;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.lastDecrease = System.nanoTime() - latencyThresholdNanos;
+        shares.put(RequestClass.WRITE, 1.0);
+        shares.put(RequestClass.LISTING, listingShare);
+        shares.put(RequestClass.SEARCH, searchShare);
+    }
+
+    /**
+     * Пытается начать запрос класса requestClass. При успехе запрос обязан завершиться вызовом
+     * {@link #onSample} или {@link #release()}.
+     */
+    public boolean tryAcquire(RequestClass requestClass) {
+        double allowed = Math.max(1, getLimit() * shares.get(requestClass));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Завершает запрос и учитывает его задержку; overloaded — ответ 5xx или таймаут.
+     */
+    public void onSample(long latencyNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (current < limit / 2) {
+                return; // Лимит почти не используется: задержка не зависит от него, менять нечего
+            }
+            long now = System.nanoTime();
+            if (overloaded || latencyNanos > latencyThresholdNanos) {
+                if (now - lastDecrease >= latencyThresholdNanos) {
+                    limit = Math.max(minLimit, limit * backoff);
+                    lastDecrease = now;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Завершает запрос без учёта задержки (например, асинхронный ответ, который продолжится вне потока запроса).
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
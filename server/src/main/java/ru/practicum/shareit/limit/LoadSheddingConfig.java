@@ -0,0 +1,69 @@
+package ru.practicum.shareit.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Адаптивное ограничение одновременных запросов к контроллерам сервера со сбросом лишней нагрузки (503).
+ * Фильтр стоит сразу после трассировки, чтобы отклонённые запросы тоже попадали в трассы.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class LoadSheddingConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${shareit.limiter.initial-limit:20}") int initialLimit,
+            @Value("${shareit.limiter.min-limit:4}") int minLimit,
+            @Value("${shareit.limiter.max-limit:200}") int maxLimit,
+            @Value("${shareit.limiter.latency-threshold-ms:300}") long latencyThresholdMs,
+            @Value("${shareit.limiter.backoff:0.9}") double backoff,
+            @Value("${shareit.limiter.listing-share:0.9}") double listingShare,
+            @Value("${shareit.limiter.search-share:0.7}") double searchShare) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                latencyThresholdMs * 1_000_000, backoff, listingShare, searchShare);
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("shareit.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Текущий адаптивный лимит одновременных запросов")
+                .register(registry);
+        Gauge.builder("shareit.limiter.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Запросы, выполняющиеся сейчас")
+                .register(registry);
+        return limiter;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            AdaptiveConcurrencyLimiter limiter,
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${shareit.limiter.retry-after-seconds:1}") long retryAfterSeconds) {
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Map<RequestClass, Counter> shed = new EnumMap<>(RequestClass.class);
+        for (RequestClass requestClass : RequestClass.values()) {
+            shed.put(requestClass, Counter.builder("shareit.limiter.shed")
+                    .description("Запросы, отклонённые с 503 из-за перегрузки")
+                    .tag("class", requestClass.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(
+                new LoadSheddingFilter(limiter, objectMapper, shed, retryAfterSeconds));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
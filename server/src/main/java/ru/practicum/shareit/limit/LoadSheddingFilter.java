@@ -0,0 +1,70 @@
+package ru.practicum.shareit.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.error.ErrorResponse;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Пропускает запрос к контроллерам, только если {@link AdaptiveConcurrencyLimiter} даёт разрешение,
+ * иначе сразу отвечает 503 с Retry-After — до того, как запрос займёт поток Tomcat и соединение с БД.
+ * Задержка каждого ответа возвращается в лимитер. Асинхронные ответы (SSE, потоковая выгрузка)
+ * освобождают разрешение при переходе в асинхронный режим и в задержках не учитываются.
+ */
+@RequiredArgsConstructor
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Map<RequestClass, Counter> shed;
+    private final long retryAfterSeconds;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        RequestClass requestClass = RequestClass.of(request.getMethod(), request.getRequestURI());
+        if (!limiter.tryAcquire(requestClass)) {
+            shed.get(requestClass).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (request.isAsyncStarted()) {
+                limiter.release();
+            } else {
+                limiter.onSample(System.nanoTime() - start, !completed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("Сервер перегружен", "Запрос отклонён из-за перегрузки, повторите позже"));
+    }
+}
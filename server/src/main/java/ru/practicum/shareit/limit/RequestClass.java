@@ -0,0 +1,18 @@
+package ru.practicum.shareit.limit;
+
+/**
+ * Класс запроса для сброса нагрузки: чем ниже приоритет, тем меньшая доля лимита ему доступна,
+ * так что при перегрузке первыми отклоняются поиск и списки, а записи (бронирования, подтверждения) проходят.
+ */
+public enum RequestClass {
+    WRITE,   // Создание, изменение и удаление: createBooking, approve и т.п.
+    LISTING, // Остальные чтения
+    SEARCH;  // Текстовый поиск (/items/search)
+
+    public static RequestClass of(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        return path.endsWith("/search") ? SEARCH : LISTING;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Слушатель сессии Hibernate, измеряющий время выполнения JDBC‑запросов и батчей.
+ * Создаётся Hibernate на каждую сессию (hibernate.session.events.auto), поэтому хранит состояние в полях.
+ */
+public class JdbcTimingSessionListener implements SessionEventListener {
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats.onJdbcTime(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStats.onJdbcTime(System.nanoTime() - batchStart);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Инспектор Hibernate, учитывающий каждый подготавливаемый SQL‑запрос.
+ * Текст запроса не изменяется.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryStats.onStatement();
+        return sql;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Собирает статистику обращений к БД для каждого HTTP‑запроса и публикует её как метрики Micrometer:
+ * - shareit.sql.statements — количество SQL‑запросов;
+ * - shareit.sql.entities.loaded — количество загруженных сущностей;
+ * - shareit.sql.collections.fetched — количество инициализированных коллекций;
+ * - shareit.sql.jdbc.time — суммарное время выполнения JDBC.
+ * Метрики помечены тегами method и uri (шаблон пути), как и http.server.requests.
+ * Если количество запросов превышает shareit.sql.warn-threshold, пишет предупреждение в лог —
+ * это помогает обнаружить N+1 до того, как он станет проблемой.
+ * Для асинхронных запросов (SSE, выгрузки) afterCompletion на исходном потоке не вызывается,
+ * поэтому статистика этого потока сбрасывается в afterConcurrentHandlingStarted и не переходит
+ * к следующему запросу, обслуженному тем же потоком.
+ */
+@Slf4j
+@Component
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public QueryCountInterceptor(ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Value("${shareit.sql.warn-threshold:20}") int warnThreshold) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryStats.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        QueryStats stats = QueryStats.stop();
+        if (stats == null) {
+            return;
+        }
+
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        summary("shareit.sql.statements", "SQL-запросы за HTTP-запрос", method, uri)
+                .record(stats.getStatements());
+        summary("shareit.sql.entities.loaded", "Загруженные сущности за HTTP-запрос", method, uri)
+                .record(stats.getEntitiesLoaded());
+        summary("shareit.sql.collections.fetched", "Инициализированные коллекции за HTTP-запрос", method, uri)
+                .record(stats.getCollectionsFetched());
+        Timer.builder("shareit.sql.jdbc.time")
+                .description("Время выполнения JDBC за HTTP-запрос")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > warnThreshold) {
+            log.warn("Слишком много SQL-запросов: {} {} выполнил {} запросов (порог {})",
+                    method, uri, stats.getStatements(), warnThreshold);
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+
+/**
+ * Счётчики обращений к БД в рамках одного HTTP‑запроса.
+ * Хранятся в ThreadLocal потока, обрабатывающего запрос: начинаются в {@link QueryCountInterceptor},
+ * а пополняются из хуков Hibernate (инспектор SQL, слушатели сессии и событий загрузки).
+ * Если сбор не запущен, хуки ничего не делают.
+ */
+@Getter
+public final class QueryStats {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entitiesLoaded;
+    private int collectionsFetched;
+    private long jdbcNanos;
+
+    private QueryStats() {
+    }
+
+    /**
+     * Начинает сбор статистики для текущего потока.
+     */
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Завершает сбор и возвращает накопленные значения (или null, если сбор не запускался).
+     */
+    public static QueryStats stop() {
+        QueryStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static void onStatement() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    static void onEntityLoaded() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.entitiesLoaded++;
+        }
+    }
+
+    static void onCollectionFetched() {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.collectionsFetched++;
+        }
+    }
+
+    static void onJdbcTime(long nanos) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.jdbcNanos += nanos;
+        }
+    }
+}
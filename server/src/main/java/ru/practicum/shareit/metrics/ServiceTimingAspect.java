@@ -0,0 +1,137 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.States;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замеряет время выполнения методов сервисных интерфейсов (ItemService, BookingService,
+ * ItemRequestService, UserService) и публикует таймер shareit.service с перцентилями p50/p95/p99
+ * и гистограммой для Prometheus.
+ * Теги: service, method, state (значение States, если передано) и size (размер результата‑коллекции).
+ * Таймеры создаются один раз на комбинацию тегов и дальше берутся из массива без аллокаций.
+ * При shareit.metrics.service-timing.enabled=false аспект не регистрируется вовсе, и прокси не создаются.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "shareit.metrics.service-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceTimingAspect {
+    private static final String TIMER_NAME = "shareit.service";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public ServiceTimingAspect(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    @Around("execution(* ru.practicum.shareit..service.*Service.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.computeIfAbsent(method, MethodTimers::new);
+        States state = methodTimers.stateOf(joinPoint.getArgs());
+
+        long start = System.nanoTime();
+        SizeBucket size = SizeBucket.ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            size = SizeBucket.of(result);
+            return result;
+        } finally {
+            methodTimers.timer(state, size).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Корзины размера результата: ограниченный набор значений тега, чтобы не раздувать количество метрик.
+     */
+    enum SizeBucket {
+        NONE("none"), EMPTY("0"), ONE("1"), UP_TO_10("2-10"), UP_TO_100("11-100"),
+        UP_TO_1000("101-1000"), MORE(">1000"), ERROR("error");
+
+        private final String tag;
+
+        SizeBucket(String tag) {
+            this.tag = tag;
+        }
+
+        static SizeBucket of(Object result) {
+            if (!(result instanceof Collection<?> collection)) {
+                return NONE;
+            }
+            int size = collection.size();
+            if (size == 0) {
+                return EMPTY;
+            } else if (size == 1) {
+                return ONE;
+            } else if (size <= 10) {
+                return UP_TO_10;
+            } else if (size <= 100) {
+                return UP_TO_100;
+            } else if (size <= 1000) {
+                return UP_TO_1000;
+            }
+            return MORE;
+        }
+    }
+
+    /**
+     * Таймеры одного метода: [значение States или отсутствие][корзина размера].
+     */
+    private final class MethodTimers {
+        private final Method method;
+        private final int stateArgIndex;
+        private final Timer[][] timers = new Timer[States.values().length + 1][SizeBucket.values().length];
+
+        MethodTimers(Method method) {
+            this.method = method;
+            this.stateArgIndex = indexOfStateParameter(method);
+        }
+
+        States stateOf(Object[] args) {
+            return stateArgIndex < 0 ? null : (States) args[stateArgIndex];
+        }
+
+        Timer timer(States state, SizeBucket size) {
+            int stateIndex = state == null ? 0 : state.ordinal() + 1;
+            Timer timer = timers[stateIndex][size.ordinal()];
+            if (timer == null) {
+                timer = Timer.builder(TIMER_NAME)
+                        .description("Время выполнения сервисных методов")
+                        .tag("service", method.getDeclaringClass().getSimpleName())
+                        .tag("method", method.getName())
+                        .tag("state", state == null ? "none" : state.name())
+                        .tag("size", size.tag)
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+                timers[stateIndex][size.ordinal()] = timer;
+            }
+            return timer;
+        }
+
+        private static int indexOfStateParameter(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] == States.class) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -52,9 +53,13 @@ public class ItemRequestController {
 
     /**
      * Получает детальные данные конкретного запроса на бронирование по ID.
+     * Отдаёт ETag; при совпадении с If-None-Match отвечает 304 без загрузки запроса.
      */
     @GetMapping("/{requestId}")
-    public ItemRequestDto getItemRequest(@PathVariable("requestId") Long requestId) {
+    public ItemRequestDto getItemRequest(@PathVariable("requestId") Long requestId, WebRequest request) {
+        if (itemRequestService.findETag(requestId).filter(request::checkNotModified).isPresent()) {
+            return null;
+        }
         return itemRequestService.getItemRequestById(requestId);
     }
 }
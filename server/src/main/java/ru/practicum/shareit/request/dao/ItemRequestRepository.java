@@ -2,10 +2,12 @@ package ru.practicum.shareit.request.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий для работы с сущностями ItemRequest (запросы на бронирование предметов) в базе данных.
@@ -27,4 +29,16 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
      */
     @Query("SELECT ir FROM ItemRequest ir ORDER BY ir.created DESC")
     List<ItemRequest> findAllOrderByCreated();
+
+    /**
+     * Метка версии запроса для ETag: версия запроса, число и последний id ответов-предметов, сумма их версий.
+     */
+    @Query("SELECT CONCAT(CAST(ir.version AS String), '.', CAST(COUNT(it) AS String), '.', " +
+            "       CAST(COALESCE(MAX(it.id), 0) AS String), '.', " +
+            "       CAST(COALESCE(SUM(it.version), 0) AS String)) " +
+            "FROM ItemRequest ir " +
+            "LEFT JOIN Item it ON it.request = ir " +
+            "WHERE ir.id = :requestId " +
+            "GROUP BY ir.id, ir.version")
+    Optional<String> findVersionTag(@Param("requestId") Long requestId);
 }
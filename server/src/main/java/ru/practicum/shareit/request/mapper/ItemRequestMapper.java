@@ -32,11 +32,13 @@ public class ItemRequestMapper {
         return toItemRequestDto(request, null);
     }
 
-    public static ItemRequest toItemRequest(CreateItemRequestDto createItemRequestDto, User requester) {
+    public static ItemRequest toItemRequest(CreateItemRequestDto createItemRequestDto,
+                                            User requester,
+                                            LocalDateTime created) {
         ItemRequest req = new ItemRequest();
         req.setDescription(createItemRequestDto.getDescription());
         req.setRequester(requester);
-        req.setCreated(LocalDateTime.now());
+        req.setCreated(created);
 
         return req;
     }
@@ -4,6 +4,7 @@ import ru.practicum.shareit.request.dto.CreateItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestService {
     ItemRequestDto create(CreateItemRequestDto createItemRequestDto, Long requesterId);
@@ -13,4 +14,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAll();
 
     ItemRequestDto getItemRequestById(Long requestId);
+
+    Optional<String> findETag(Long requestId);
 }
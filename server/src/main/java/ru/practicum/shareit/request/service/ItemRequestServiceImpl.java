@@ -12,7 +12,10 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Сервис для работы с запросами на бронирование предметов.
@@ -24,6 +27,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final Clock clock;
 
     /**
      * Создаёт новый запрос на бронирование предмета.
@@ -31,7 +35,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public ItemRequestDto create(CreateItemRequestDto createItemRequestDto, Long requesterId) {
         User requester = getUser(requesterId);
-        ItemRequest created = ItemRequestMapper.toItemRequest(createItemRequestDto, requester);
+        ItemRequest created = ItemRequestMapper.toItemRequest(createItemRequestDto, requester, LocalDateTime.now(clock));
         return ItemRequestMapper.toItemRequestDto(itemRequestRepository.save(created));
     }
 
@@ -52,6 +56,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return getItemRequestDtos(itemRequestRepository.findAllOrderByCreated());
     }
 
+    /**
+     * Возвращает ETag запроса: меняется при изменении запроса или предметов, созданных в ответ на него.
+     */
+    @Override
+    public Optional<String> findETag(Long requestId) {
+        return itemRequestRepository.findVersionTag(requestId).map(tag -> "\"r" + requestId + "." + tag + "\"");
+    }
+
     /**
      * Получает детальные данные конкретного запроса по ID.
      * Включает список подходящих предметов, удовлетворяющих запросу.
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Открывает участки трассы для методов контроллеров, сервисов и репозиториев.
+ * Имя участка — "Класс.метод", где класс — контроллер, сервисный или репозиторный интерфейс.
+ * Участки репозиториев открываются только внутри уже начатой трассы: фоновые задачи (доставка outbox,
+ * отмена просроченных бронирований) обращаются к репозиториям напрямую, и каждая их выборка иначе
+ * становилась бы отдельной трассой.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class TracingAspect {
+    private static final String PROJECT_PACKAGE = "ru.practicum.shareit";
+
+    private final Tracer tracer;
+
+    @Around("execution(* ru.practicum.shareit..controller.*Controller.*(..))"
+            + " || execution(* ru.practicum.shareit..service.*Service.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceedInSpan(joinPoint);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (tracer.currentTraceId() == null) {
+            return joinPoint.proceed();
+        }
+        return proceedInSpan(joinPoint);
+    }
+
+    private Object proceedInSpan(ProceedingJoinPoint joinPoint) throws Throwable {
+        String name = ownType(joinPoint).getSimpleName() + "." + joinPoint.getSignature().getName();
+        try (Tracer.Scope scope = tracer.startSpan(name)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                scope.error(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Методы Spring Data объявлены в CrudRepository и т.п., поэтому для репозиториев
+     * берётся собственный интерфейс проекта, реализованный прокси.
+     */
+    private static Class<?> ownType(ProceedingJoinPoint joinPoint) {
+        Class<?> declaringType = joinPoint.getSignature().getDeclaringType();
+        if (declaringType.getPackageName().startsWith(PROJECT_PACKAGE) || joinPoint.getTarget() == null) {
+            return declaringType;
+        }
+        for (Class<?> type : joinPoint.getTarget().getClass().getInterfaces()) {
+            if (type.getPackageName().startsWith(PROJECT_PACKAGE)) {
+                return type;
+            }
+        }
+        return declaringType;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Участки трассы для контроллеров, сервисов и репозиториев сервера.
+ * Фильтр, трассировщик и экспорт участков настраивает общий {@link TracingConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingAspectConfig {
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+}
@@ -1,11 +1,18 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CustomHttpHeader;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -13,6 +20,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public User create(@RequestBody UserRequestDto user) {
@@ -25,9 +33,34 @@ public class UserController {
         return userService.update(userId, newUser);
     }
 
+    /**
+     * Страница пользователей по ключу. Если страница заполнена, в X-Next-Cursor передаётся afterId следующей.
+     */
     @GetMapping
-    public List<User> findAll() {
-        return userService.findAll();
+    public ResponseEntity<List<User>> findAll(@RequestParam(name = "afterId", defaultValue = "0") Long afterId,
+                                              @RequestParam(name = "size", defaultValue = "100") Integer size) {
+        List<User> users = userService.findAll(afterId, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!users.isEmpty() && users.size() == size) {
+            response.header(CustomHttpHeader.NEXT_CURSOR, String.valueOf(users.getLast().getId()));
+        }
+        return response.body(users);
+    }
+
+    /**
+     * Выгрузка всех пользователей в NDJSON (по объекту на строку), пишется по мере чтения курсора БД.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> userService.forEachUser(user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -35,6 +68,14 @@ public class UserController {
         return userService.findById(id);
     }
 
+    /**
+     * Проверка существования пользователя для шлюза: 200 или 404 без тела.
+     */
+    @RequestMapping(path = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> exists(@PathVariable("id") Long id) {
+        return userService.existsById(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/{id}")
     public boolean deleteById(@PathVariable("id") Long id) {
         return userService.deleteById(id);
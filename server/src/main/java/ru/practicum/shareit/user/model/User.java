@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -18,4 +19,9 @@ public class User {
 
     @Column(nullable = false)
     private String name;
+
+    @JsonIgnore // служебное поле; UserController отдаёт сущность напрямую
+    @Version
+    @Column(name = "version")
+    private Long version;
 }
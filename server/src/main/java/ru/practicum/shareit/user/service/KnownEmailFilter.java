@@ -0,0 +1,132 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Фильтр Блума по email пользователей (без учёта регистра) для проверки уникальности без запроса в БД.
+ * Отвечает только «точно новый» или «возможно занят»: во втором случае сервис проверяет email запросом,
+ * а гонки и записи в обход этого экземпляра ловит ограничение UQ_USER_EMAIL.
+ * Заполняется потоком email из БД после старта и пополняется при сохранении пользователей; до окончания
+ * заполнения ничего не утверждает. Удалённые и сменённые email из фильтра не убираются — это лишь лишние
+ * проверки запросом.
+ */
+@Slf4j
+@Component
+public class KnownEmailFilter {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedEmails;
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+    private final AtomicLong added = new AtomicLong();
+    private volatile boolean ready;
+
+    public KnownEmailFilter(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${shareit.users.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${shareit.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.expectedEmails = expectedEmails;
+        // Оптимальные размеры: m = -n·ln(p) / ln²2 бит, k = m/n·ln2 хеш-функций
+        double ln2 = Math.log(2);
+        long bitsNeeded = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bitCount = (int) Math.min(Math.max(bitsNeeded, Long.SIZE), Integer.MAX_VALUE - Long.SIZE);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * ln2));
+        this.bits = new AtomicLongArray((bitCount + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Заполняет фильтр всеми email из БД. До завершения isDefinitelyNew всегда возвращает false.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                emails.forEach(this::add);
+            }
+        });
+        ready = true;
+        log.info("Фильтр email заполнен: {} адресов за {} мс, {} КБ, {} хеш-функций",
+                added.get(), (System.nanoTime() - start) / 1_000_000, bits.length() * Long.BYTES / 1024, hashCount);
+    }
+
+    /**
+     * true — такого email (без учёта регистра) точно нет среди известных; false — возможно есть.
+     */
+    public boolean isDefinitelyNew(String email) {
+        if (!ready || email == null) {
+            return false;
+        }
+        long hash = hash(email);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitIndex(hash + i * step);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Запоминает email сохранённого пользователя.
+     */
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash = hash(email);
+        long step = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bitIndex(hash + i * step);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+        if (added.incrementAndGet() == expectedEmails + 1) {
+            log.warn("В фильтре email больше {} адресов: доля лишних проверок запросом растёт, "
+                    + "увеличьте shareit.users.email-filter.expected-emails", expectedEmails);
+        }
+    }
+
+    private int bitIndex(long hash) {
+        return (int) Long.remainderUnsigned(hash, bitCount);
+    }
+
+    // FNV-1a по байтам email в нижнем регистре; вторая хеш-функция получается перемешиванием первой
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    // Финализатор SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -4,15 +4,20 @@ import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     User create(UserRequestDto user);
 
     User update(Long userId, UserRequestDto newUserDto);
 
-    List<User> findAll();
+    List<User> findAll(Long afterId, int size);
+
+    void forEachUser(Consumer<User> action);
 
     User findById(Long id);
 
+    boolean existsById(Long id);
+
     boolean deleteById(Long id);
 }
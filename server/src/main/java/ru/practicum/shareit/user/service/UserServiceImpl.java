@@ -1,8 +1,14 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cache.CacheInvalidationBus;
+import ru.practicum.shareit.cache.CacheRegion;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserRequestDto;
@@ -11,6 +17,9 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Сервис для работы с пользователями в системе.
@@ -19,12 +28,20 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int MAX_PAGE_SIZE = 1000; // Больше за один запрос не отдаём, остальное — через курсор
+    private static final String EMAIL_CONSTRAINT = "uq_user_email";
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final KnownEmailFilter knownEmailFilter;
+    private final CacheInvalidationBus invalidationBus;
 
     /**
      * Создаёт нового пользователя.
      * @Transactional гарантирует атомарность операции: если проверка на дубликат
      * или сохранение провалятся — транзакция будет откатана.
+     * Для email, которого точно нет в KnownEmailFilter, проверочный запрос не выполняется:
+     * дубликат в этом случае отсекает ограничение UQ_USER_EMAIL.
      */
     @Override
     @Transactional
@@ -36,7 +53,7 @@ public class UserServiceImpl implements UserService {
                     "Пользователь с email " + user.getEmail() + " уже существует."
             );
         }
-        return userRepository.save(user);
+        return saveWithUniqueEmail(user);
     }
 
     /**
@@ -49,28 +66,41 @@ public class UserServiceImpl implements UserService {
     public User update(Long userId, UserRequestDto newUserDto) {
         User oldUser = getUser(userId);
         User newUser = UserMapper.toUser(newUserDto);
-        newUser.setId(userId);
-
-        // Сохраняем старые значения, если новые не указаны
-        if (newUser.getName() == null) newUser.setName(oldUser.getName());
-        if (newUser.getEmail() == null) newUser.setEmail(oldUser.getEmail());
-
-        String oldEmail = oldUser.getEmail();
 
         // Проверяем, изменился ли email и не занят ли он
-        if (!oldEmail.equals(newUser.getEmail()) && containsEmail(newUser)) {
+        if (newUser.getEmail() != null && !oldUser.getEmail().equals(newUser.getEmail()) && containsEmail(newUser)) {
             throw new DuplicatedDataException("Email " + newUser.getEmail() + " уже занят.");
         }
 
-        return userRepository.save(newUser);
+        // Меняем загруженную сущность, а не сохраняем новую: так проверяется и увеличивается версия строки
+        if (newUser.getName() != null) oldUser.setName(newUser.getName());
+        if (newUser.getEmail() != null) oldUser.setEmail(newUser.getEmail());
+
+        return saveWithUniqueEmail(oldUser);
+    }
+
+    /**
+     * Получает страницу пользователей по ключу: до size пользователей с id больше afterId, по возрастанию id.
+     * Следующая страница запрашивается с afterId = id последнего пользователя.
+     */
+    @Override
+    public List<User> findAll(Long afterId, int size) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(Math.min(size, MAX_PAGE_SIZE)));
     }
 
     /**
-     * Получает список всех пользователей в системе.
+     * Передаёт всех пользователей в action по одному, читая их курсором БД.
+     * Каждый пользователь после обработки отсоединяется, чтобы контекст персистентности не рос.
      */
     @Override
-    public List<User> findAll() {
-        return userRepository.findAll();
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<User> action) {
+        try (Stream<User> users = userRepository.streamAllOrderById()) {
+            users.forEach(user -> {
+                action.accept(user);
+                entityManager.detach(user);
+            });
+        }
     }
 
     /**
@@ -81,6 +111,14 @@ public class UserServiceImpl implements UserService {
         return getUser(id);
     }
 
+    /**
+     * Проверяет существование пользователя без загрузки сущности.
+     */
+    @Override
+    public boolean existsById(Long id) {
+        return userRepository.existsById(id);
+    }
+
     /**
      * Удаляет пользователя по ID.
      */
@@ -89,6 +127,7 @@ public class UserServiceImpl implements UserService {
     public boolean deleteById(Long id) {
         findById(id); // Проверяем существование пользователя
         userRepository.deleteById(id);
+        invalidationBus.publish(CacheRegion.USER, id);
         return true;
     }
 
@@ -102,9 +141,38 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Проверяет, существует ли пользователь с указанным email в системе.
+     * Запрос выполняется, только если фильтр не может гарантировать, что email новый.
      */
     private boolean containsEmail(User user) {
         String currentUserEmail = user.getEmail();
-        return userRepository.countUsersByEmail(currentUserEmail) != 0;
+        return !knownEmailFilter.isDefinitelyNew(currentUserEmail)
+                && userRepository.countUsersByEmail(currentUserEmail) != 0;
+    }
+
+    /**
+     * Сохраняет пользователя сразу в БД, чтобы нарушение UQ_USER_EMAIL проявилось здесь, а не при фиксации,
+     * и переводит его в DuplicatedDataException.
+     */
+    private User saveWithUniqueEmail(User user) {
+        try {
+            User saved = userRepository.saveAndFlush(user);
+            knownEmailFilter.add(saved.getEmail());
+            invalidationBus.publish(CacheRegion.USER, saved.getId());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            if (!isEmailConstraintViolation(e)) {
+                throw e;
+            }
+            throw new DuplicatedDataException("Email " + user.getEmail() + " уже занят.");
+        }
+    }
+
+    private static boolean isEmailConstraintViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
     }
 }
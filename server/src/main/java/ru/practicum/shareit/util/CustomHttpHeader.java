@@ -1,5 +0,0 @@
-package ru.practicum.shareit.util;
-
-public class CustomHttpHeader {
-    public static final String USER_ID = "X-Sharer-User-Id";
-}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Минутный временной интервал, на который могут ссылаться кэши результатов,
+ * зависящих от текущего времени (CURRENT/PAST/FUTURE).
+ * В пределах одной минуты значение бакета одинаково, поэтому его можно использовать как часть ключа кэша.
+ */
+public record TimeBucket(long epochMinute) {
+
+    /**
+     * Возвращает бакет, содержащий текущий момент указанных часов.
+     */
+    public static TimeBucket of(Clock clock) {
+        return new TimeBucket(clock.millis() / ChronoUnit.MINUTES.getDuration().toMillis());
+    }
+
+    /**
+     * Начало бакета в локальном времени часового пояса.
+     */
+    public LocalDateTime start(ZoneId zone) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochMinute * 60), zone);
+    }
+}
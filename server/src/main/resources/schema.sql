@@ -51,3 +51,53 @@ CREATE TABLE IF NOT EXISTS comments (
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (item_id) REFERENCES items(id)
 );
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings (item_id, status, booking_start, booking_end);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload VARCHAR NOT NULL,
+    created TIMESTAMP NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+-- Исходы доставки по потребителям; строки появляются только у событий, доставка которых не удалась
+CREATE TABLE IF NOT EXISTS outbox_deliveries (
+    event_id BIGINT NOT NULL,
+    consumer VARCHAR(255) NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    delivered BOOLEAN DEFAULT FALSE NOT NULL,
+    CONSTRAINT pk_outbox_deliveries PRIMARY KEY (event_id, consumer),
+    CONSTRAINT fk_outbox_deliveries_event FOREIGN KEY (event_id) REFERENCES outbox_events(id) ON DELETE CASCADE
+);
+
+-- События, исчерпавшие попытки доставки: убраны из outbox, чтобы не выбираться каждым проходом
+CREATE TABLE IF NOT EXISTS outbox_dead_letters (
+    id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload VARCHAR NOT NULL,
+    created TIMESTAMP NOT NULL,
+    failed_consumers VARCHAR(1024) NOT NULL,
+    dead_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_outbox_dead_letters PRIMARY KEY (id)
+);
+ALTER TABLE outbox_dead_letters ADD COLUMN IF NOT EXISTS reason VARCHAR(64) DEFAULT 'ATTEMPTS_EXHAUSTED' NOT NULL;
+
+-- Версии строк для оптимистической блокировки и ETag (увеличиваются при каждом изменении)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE item_requests ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+-- Покрывает и поиск комментариев по item_id, поэтому отдельный индекс по item_id не нужен
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id, id DESC);
+
+-- Агрегаты комментариев предмета для списков и поиска: ведутся приращениями, сверяются ItemCommentStatsReconciler
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_comment_at TIMESTAMP;
@@ -0,0 +1,131 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.RequestItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ConditionalGetTest {
+    private final MockMvc mvc;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+    private final BookingService bookingService;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    public void setUp() {
+        ownerId = createUser("etagOwner");
+        bookerId = createUser("etagBooker");
+        itemId = itemService.create(new RequestItemDto("drill", "cordless drill", true, null), ownerId).getId();
+    }
+
+    @Test
+    public void itemShouldReturnNotModifiedUntilChanged() throws Exception {
+        String etag = fetchETag(get("/items/{itemId}", itemId));
+
+        mvc.perform(get("/items/{itemId}", itemId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        itemService.update(itemId, new RequestItemDto(null, "hammer drill", null, null), ownerId);
+
+        String changed = fetchETag(get("/items/{itemId}", itemId).header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(changed, not(equalTo(etag)));
+    }
+
+    @Test
+    public void requestShouldChangeETagWhenItemIsAdded() throws Exception {
+        CreateItemRequestDto createRequest = new CreateItemRequestDto();
+        createRequest.setDescription("need a ladder");
+        Long requestId = itemRequestService.create(createRequest, bookerId).getId();
+        String etag = fetchETag(get("/requests/{requestId}", requestId));
+
+        mvc.perform(get("/requests/{requestId}", requestId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        itemService.create(new RequestItemDto("ladder", "3m ladder", true, requestId), ownerId);
+
+        String changed = fetchETag(get("/requests/{requestId}", requestId).header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(changed, not(equalTo(etag)));
+    }
+
+    @Test
+    public void bookingShouldChangeETagWhenApproved() throws Exception {
+        CreateBookingDto createBooking = new CreateBookingDto();
+        createBooking.setItemId(itemId);
+        createBooking.setStart(LocalDateTime.now().plusDays(1));
+        createBooking.setEnd(LocalDateTime.now().plusDays(2));
+        Long bookingId = bookingService.createBooking(createBooking, bookerId).getId();
+        String etag = fetchETag(get("/bookings/{bookingId}", bookingId).header(CustomHttpHeader.USER_ID, bookerId));
+
+        mvc.perform(get("/bookings/{bookingId}", bookingId)
+                        .header(CustomHttpHeader.USER_ID, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        bookingService.approve(ownerId, bookingId, true);
+
+        String changed = fetchETag(get("/bookings/{bookingId}", bookingId)
+                .header(CustomHttpHeader.USER_ID, bookerId)
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(changed, not(equalTo(etag)));
+
+        Long strangerId = createUser("etagStranger");
+        mvc.perform(get("/bookings/{bookingId}", bookingId)
+                        .header(CustomHttpHeader.USER_ID, strangerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, changed))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String fetchETag(MockHttpServletRequestBuilder request) throws Exception {
+        String etag = mvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(etag, notNullValue());
+        return etag;
+    }
+
+    private Long createUser(String name) {
+        UserRequestDto user = new UserRequestDto();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        return userService.create(user).getId();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.availability;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.availability.controller.AvailabilityController;
+import ru.practicum.shareit.availability.dto.AvailabilityDto;
+import ru.practicum.shareit.availability.dto.IntervalDto;
+import ru.practicum.shareit.availability.service.AvailabilityService;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AvailabilityController.class)
+public class AvailabilityControllerTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2030, 1, 3, 0, 0);
+
+    @MockBean
+    AvailabilityService availabilityService;
+
+    @Autowired
+    MockMvc mvc;
+
+    private final AvailabilityDto availabilityDto = new AvailabilityDto(1L, FROM, TO,
+            List.of(new IntervalDto(FROM.plusDays(1), TO, null)),
+            List.of(new IntervalDto(FROM, FROM.plusDays(1), BookingStatus.APPROVED)));
+
+    @Test
+    public void getAvailabilityTest() throws Exception {
+        when(availabilityService.getAvailability(1L, FROM, TO, true))
+                .thenReturn(availabilityDto);
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00")
+                        .param("includeWaiting", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(1)))
+                .andExpect(jsonPath("$.free[0].start", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$.occupied[0].status", is("APPROVED")));
+    }
+
+    @Test
+    public void getOwnerAvailabilityTest() throws Exception {
+        when(availabilityService.getOwnerAvailability(eq(2L), eq(List.of(1L)), eq(null), eq(null), eq(false)))
+                .thenReturn(List.of(availabilityDto));
+
+        mvc.perform(get("/items/availability")
+                        .header(CustomHttpHeader.USER_ID, "2")
+                        .param("itemIds", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId", is(1)));
+    }
+}
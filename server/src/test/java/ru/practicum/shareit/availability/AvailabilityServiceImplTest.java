@@ -0,0 +1,147 @@
+package ru.practicum.shareit.availability;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.availability.dto.AvailabilityDto;
+import ru.practicum.shareit.availability.dto.IntervalDto;
+import ru.practicum.shareit.availability.service.AvailabilityService;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.RequestItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class AvailabilityServiceImplTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2030, 1, 11, 0, 0);
+
+    private final AvailabilityService availabilityService;
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final ItemService itemService;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    public void setUp() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("ownerName");
+        userRequestDto.setEmail("ownerEmail");
+        ownerId = userService.create(userRequestDto).getId();
+
+        userRequestDto = new UserRequestDto();
+        userRequestDto.setName("bookerName");
+        userRequestDto.setEmail("bookerEmail");
+        bookerId = userService.create(userRequestDto).getId();
+
+        itemId = itemService.create(new RequestItemDto("drill", "drill description", true, null), ownerId).getId();
+    }
+
+    @Test
+    public void shouldReturnWholeWindowAsFreeWithoutBookings() {
+        AvailabilityDto res = availabilityService.getAvailability(itemId, FROM, TO, false);
+
+        assertThat(res.getOccupied().size(), equalTo(0));
+        assertThat(res.getFree(), equalTo(List.of(new IntervalDto(FROM, TO, null))));
+    }
+
+    @Test
+    public void shouldComputeFreeGapsBetweenApprovedBookings() {
+        approve(book(FROM.minusDays(1), FROM.plusDays(2)));
+        approve(book(FROM.plusDays(4), FROM.plusDays(6)));
+        approve(book(FROM.plusDays(6), FROM.plusDays(7))); // Стык без пересечения: пересекающиеся не подтвердить
+        book(FROM.plusDays(8), FROM.plusDays(9));
+
+        AvailabilityDto res = availabilityService.getAvailability(itemId, FROM, TO, false);
+
+        assertThat(res.getOccupied().size(), equalTo(3));
+        assertThat(res.getOccupied().getFirst(), equalTo(new IntervalDto(FROM, FROM.plusDays(2), BookingStatus.APPROVED)));
+        assertThat(res.getFree(), equalTo(List.of(
+                new IntervalDto(FROM.plusDays(2), FROM.plusDays(4), null),
+                new IntervalDto(FROM.plusDays(7), TO, null))));
+    }
+
+    @Test
+    public void shouldTreatWaitingAsOccupiedOnlyWhenRequested() {
+        book(FROM.plusDays(1), FROM.plusDays(2));
+
+        AvailabilityDto withoutWaiting = availabilityService.getAvailability(itemId, FROM, TO, false);
+        AvailabilityDto withWaiting = availabilityService.getAvailability(itemId, FROM, TO, true);
+
+        assertThat(withoutWaiting.getFree().size(), equalTo(1));
+        assertThat(withWaiting.getOccupied(), equalTo(List.of(
+                new IntervalDto(FROM.plusDays(1), FROM.plusDays(2), BookingStatus.WAITING))));
+        assertThat(withWaiting.getFree().size(), equalTo(2));
+    }
+
+    @Test
+    public void shouldRefreshIndexAfterBookingChanges() {
+        Long bookingId = book(FROM.plusDays(1), FROM.plusDays(2));
+        assertThat(availabilityService.getAvailability(itemId, FROM, TO, false).getOccupied().size(), equalTo(0));
+
+        approve(bookingId);
+
+        assertThat(availabilityService.getAvailability(itemId, FROM, TO, false).getOccupied().size(), equalTo(1));
+    }
+
+    @Test
+    public void shouldReturnCalendarsForOwnerItems() {
+        Long secondItemId = itemService.create(new RequestItemDto("saw", "saw description", true, null), ownerId).getId();
+        approve(book(FROM.plusDays(1), FROM.plusDays(2)));
+
+        List<AvailabilityDto> res = availabilityService.getOwnerAvailability(ownerId, null, FROM, TO, false);
+
+        assertThat(res.size(), equalTo(2));
+        assertThat(res.get(0).getItemId(), equalTo(itemId));
+        assertThat(res.get(0).getOccupied().size(), equalTo(1));
+        assertThat(res.get(1).getItemId(), equalTo(secondItemId));
+        assertThat(res.get(1).getOccupied().size(), equalTo(0));
+    }
+
+    @Test
+    public void shouldRejectForeignItemsInOwnerView() {
+        Assertions.assertThrows(NotFoundException.class,
+                () -> availabilityService.getOwnerAvailability(bookerId, List.of(itemId), FROM, TO, false));
+    }
+
+    @Test
+    public void shouldRejectUnknownItemAndEmptyWindow() {
+        Assertions.assertThrows(NotFoundException.class,
+                () -> availabilityService.getAvailability(-1L, FROM, TO, false));
+        Assertions.assertThrows(ConditionsNotMetException.class,
+                () -> availabilityService.getAvailability(itemId, TO, FROM, false));
+    }
+
+    private Long book(LocalDateTime start, LocalDateTime end) {
+        CreateBookingDto createBookingDto = new CreateBookingDto();
+        createBookingDto.setStart(start);
+        createBookingDto.setEnd(end);
+        createBookingDto.setItemId(itemId);
+        return bookingService.createBooking(createBookingDto, bookerId).getId();
+    }
+
+    private void approve(Long bookingId) {
+        bookingService.approve(ownerId, bookingId, true);
+    }
+}
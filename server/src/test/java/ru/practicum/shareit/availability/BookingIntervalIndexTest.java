@@ -0,0 +1,82 @@
+package ru.practicum.shareit.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.availability.index.BookingIntervalIndex;
+import ru.practicum.shareit.availability.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.config.ClockConfig;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BookingIntervalIndexTest {
+    private static final Long ITEM_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 10, 12, 0, 0);
+    private static final LocalDateTime HORIZON = NOW.minusDays(7);
+
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findIntervalsEndingAfter(any(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.findIntervals(any(), any())).thenReturn(List.of(
+                new BookingInterval(ITEM_ID, NOW.minusDays(30), NOW.minusDays(29), BookingStatus.APPROVED)));
+    }
+
+    @Test
+    public void shouldLoadOnlyIntervalsEndingAfterHistoryHorizon() {
+        BookingIntervalIndex index = index(100, 600_000);
+
+        index.find(ITEM_ID, NOW, NOW.plusDays(1), false);
+        index.find(ITEM_ID, HORIZON, NOW, false);
+
+        verify(bookingRepository, times(1)).findIntervalsEndingAfter(eq(List.of(ITEM_ID)), any(), eq(HORIZON));
+        verify(bookingRepository, never()).findIntervals(any(), any());
+        assertThat(index.contains(ITEM_ID), equalTo(true));
+    }
+
+    @Test
+    public void shouldReadWindowsOlderThanHorizonPastIndex() {
+        BookingIntervalIndex index = index(100, 600_000);
+
+        List<BookingInterval> intervals = index.find(ITEM_ID, NOW.minusDays(31), NOW.minusDays(28), false);
+
+        assertThat(intervals.size(), equalTo(1));
+        verify(bookingRepository, never()).findIntervalsEndingAfter(any(), any(), any());
+        assertThat(index.contains(ITEM_ID), equalTo(false));
+    }
+
+    @Test
+    public void shouldCapItemsAndExpireEntries() {
+        BookingIntervalIndex bounded = index(10, 600_000);
+        for (long itemId = 1; itemId <= 100; itemId++) {
+            bounded.find(itemId, NOW, NOW.plusDays(1), false);
+        }
+        long cached = LongStream.rangeClosed(1, 100).filter(bounded::contains).count();
+        assertThat(cached, lessThanOrEqualTo(10L));
+        assertThat(bounded.contains(100L), equalTo(true));
+
+        BookingIntervalIndex expiring = index(10, 0);
+        expiring.find(ITEM_ID, NOW, NOW.plusDays(1), false);
+        assertThat(expiring.contains(ITEM_ID), equalTo(false));
+    }
+
+    private BookingIntervalIndex index(int maxItems, long ttlMs) {
+        return new BookingIntervalIndex(bookingRepository, ClockConfig.fixedAt(NOW), maxItems, ttlMs, 7);
+    }
+}
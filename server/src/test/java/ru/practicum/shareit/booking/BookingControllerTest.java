@@ -9,10 +9,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingCountersDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.DecisionOutcome;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ResponseItemDto;
+import ru.practicum.shareit.user.dto.UserResponseDto;
 import ru.practicum.shareit.util.CustomHttpHeader;
 
 import java.nio.charset.StandardCharsets;
@@ -83,6 +89,38 @@ public class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void approveAllTest() throws Exception {
+        when(bookingService.approveAll(anyLong(), anyList())).thenReturn(List.of(
+                new BookingDecisionResultDto(1L, DecisionOutcome.APPROVED, bookingDto),
+                new BookingDecisionResultDto(2L, DecisionOutcome.NOT_FOUND, null)));
+
+        mvc.perform(patch("/bookings")
+                        .content(mapper.writeValueAsString(List.of(
+                                new BookingDecisionDto(1L, true),
+                                new BookingDecisionDto(2L, false))))
+                        .header(CustomHttpHeader.USER_ID, 1L)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8.name())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].outcome", is("APPROVED")))
+                .andExpect(jsonPath("$[1].outcome", is("NOT_FOUND")));
+    }
+
+    @Test
+    public void getCountersByOwnerTest() throws Exception {
+        when(bookingService.getCountersByOwner(anyLong())).thenReturn(new BookingCountersDto(3, 1, 0, 1, 1, 0));
+
+        mvc.perform(get("/bookings/owner/counters")
+                        .header(CustomHttpHeader.USER_ID, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(3)))
+                .andExpect(jsonPath("$.waiting", is(1)));
+    }
+
     @Test
     public void getBookingTest() throws Exception {
         when(bookingService.findBooking(anyLong(), anyLong())).thenReturn(bookingDto);
@@ -122,4 +160,29 @@ public class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()", is(1)));
     }
+
+    @Test
+    public void getCompactBookingsByOwner() throws Exception {
+        ResponseItemDto item = new ResponseItemDto(5L, "name", "description", true, null, null, null);
+        UserResponseDto booker = new UserResponseDto(7L, "booker@mail.ru", "booker");
+        BookingDto first = new BookingDto(1L, createBookingDto.getStart(), createBookingDto.getEnd(),
+                item, booker, BookingStatus.WAITING);
+        BookingDto second = new BookingDto(2L, createBookingDto.getStart(), createBookingDto.getEnd(),
+                item, booker, BookingStatus.APPROVED);
+        when(bookingService.getBookingsByOwner(anyLong(), any())).thenReturn(List.of(first, second));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(CustomHttpHeader.USER_ID, 1L)
+                        .param("state", "ALL")
+                        .param("view", "compact")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings.length()", is(2)))
+                .andExpect(jsonPath("$.bookings[1].itemId", is(5)))
+                .andExpect(jsonPath("$.bookings[1].bookerId", is(7)))
+                .andExpect(jsonPath("$.bookings[1].status", is("APPROVED")))
+                .andExpect(jsonPath("$.items.length()", is(1)))
+                .andExpect(jsonPath("$.items.5.name", is("name")))
+                .andExpect(jsonPath("$.users.7.name", is("booker")));
+    }
 }
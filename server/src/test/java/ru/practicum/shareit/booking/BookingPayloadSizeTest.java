@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ResponseItemDto;
+import ru.practicum.shareit.user.dto.UserResponseDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Размер списка бронирований владельца на проводе: полный и компактный вид, без сжатия и с gzip.
+ * Список типичный для панели владельца: 200 бронирований 10 предметов от 40 арендаторов.
+ */
+@Slf4j
+@JsonTest
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingPayloadSizeTest {
+    private static final int BOOKINGS = 200;
+    private static final int ITEMS = 10;
+    private static final int BOOKERS = 40;
+
+    private final ObjectMapper mapper;
+
+    @Test
+    public void compactViewAndGzipShouldShrinkOwnerBookingList() throws Exception {
+        List<BookingDto> bookings = ownerBookings();
+
+        byte[] full = mapper.writeValueAsBytes(bookings);
+        byte[] compact = mapper.writeValueAsBytes(BookingMapper.toCompactBookingListDto(bookings));
+        int fullGzip = gzip(full).length;
+        int compactGzip = gzip(compact).length;
+
+        log.info("Список из {} бронирований, байт: full={}, full+gzip={}, compact={}, compact+gzip={}",
+                BOOKINGS, full.length, fullGzip, compact.length, compactGzip);
+
+        assertThat(compact.length, lessThan(full.length * 2 / 3));
+        assertThat(fullGzip, lessThan(full.length / 4));
+        assertThat(compactGzip, lessThan(fullGzip));
+    }
+
+    private static List<BookingDto> ownerBookings() {
+        List<ResponseItemDto> items = new ArrayList<>();
+        for (long i = 1; i <= ITEMS; i++) {
+            items.add(new ResponseItemDto(i, "Дрель аккумуляторная " + i,
+                    "Аккумуляторная дрель-шуруповёрт, два аккумулятора, зарядное устройство и набор бит в кейсе",
+                    true, null, null, null));
+        }
+        List<UserResponseDto> bookers = new ArrayList<>();
+        for (long i = 1; i <= BOOKERS; i++) {
+            bookers.add(new UserResponseDto(100 + i, "booker" + i + "@example.com", "Арендатор " + i));
+        }
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 10, 0);
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings.add(new BookingDto((long) i + 1, start.plusDays(i), start.plusDays(i).plusHours(6),
+                    items.get(i % ITEMS), bookers.get(i % BOOKERS),
+                    i % 3 == 0 ? BookingStatus.WAITING : BookingStatus.APPROVED));
+        }
+        return bookings;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -9,8 +9,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCountersDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.dto.DecisionOutcome;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.States;
@@ -27,6 +31,7 @@ import java.util.List;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 @Transactional
@@ -133,12 +138,92 @@ public class BookingServiceImplTest {
                 -> bookingService.approve(notOwnerAndBookerId, bookId, true));
     }
 
+    @Test
+    public void handleApproveOverlapping() {
+        Long first = createBooking(itemId, TEST_START, TEST_END);
+        Long overlapping = createBooking(itemId, TEST_START.plusHours(12), TEST_END.plusHours(12));
+        bookingService.approve(userId, first, true);
+
+        Assertions.assertThrows(ConditionsNotMetException.class, ()
+                -> bookingService.approve(userId, overlapping, true));
+        assertThat(bookingService.approve(userId, overlapping, false).getStatus(), equalTo(BookingStatus.REJECTED));
+    }
+
     @Test
     public void handleBookingNotFound() {
         Assertions.assertThrows(NotFoundException.class, ()
                 -> bookingService.approve(userId, 1L, true));
     }
 
+    @Test
+    public void approveAllTest() {
+        Long first = createBooking(itemId, TEST_START, TEST_END);
+        Long overlapping = createBooking(itemId, TEST_START.plusHours(12), TEST_END.plusHours(12));
+        Long rejected = createBooking(itemId, TEST_END.plusDays(1), TEST_END.plusDays(2));
+        Long foreignItemId = itemService.create(new RequestItemDto("foreignItem", "foreignDescription", true, null),
+                notOwnerAndBookerId).getId();
+        Long foreign = createBooking(foreignItemId, TEST_START, TEST_END);
+
+        List<BookingDecisionResultDto> res = bookingService.approveAll(userId, List.of(
+                new BookingDecisionDto(first, true),
+                new BookingDecisionDto(overlapping, true),
+                new BookingDecisionDto(rejected, false),
+                new BookingDecisionDto(foreign, true),
+                new BookingDecisionDto(-1L, true),
+                new BookingDecisionDto(first, false)));
+
+        assertThat(res.stream().map(BookingDecisionResultDto::getOutcome).toList(), equalTo(List.of(
+                DecisionOutcome.APPROVED,
+                DecisionOutcome.OVERLAP,
+                DecisionOutcome.REJECTED,
+                DecisionOutcome.NOT_OWNER,
+                DecisionOutcome.NOT_FOUND,
+                DecisionOutcome.DUPLICATE)));
+        assertThat(res.get(0).getBooking().getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(res.get(1).getBooking(), nullValue());
+        assertThat(em.find(Booking.class, overlapping).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(em.find(Booking.class, rejected).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(em.find(Booking.class, foreign).getStatus(), equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    public void approveAllSkipsAlreadyDecided() {
+        Long bookId = createDefaultBooking().getId();
+        bookingService.approve(userId, bookId, false);
+
+        List<BookingDecisionResultDto> res = bookingService.approveAll(userId,
+                List.of(new BookingDecisionDto(bookId, true)));
+
+        assertThat(res.getFirst().getOutcome(), equalTo(DecisionOutcome.NOT_WAITING));
+        assertThat(em.find(Booking.class, bookId).getStatus(), equalTo(BookingStatus.REJECTED));
+    }
+
+    @Test
+    public void approveAllHandleUserNotFound() {
+        Assertions.assertThrows(NotFoundException.class, ()
+                -> bookingService.approveAll(-1L, List.of(new BookingDecisionDto(1L, true))));
+    }
+
+    @Test
+    public void getCountersByOwner() {
+        LocalDateTime now = LocalDateTime.now();
+        Long past = createBooking(itemId, now.minusDays(3), now.minusDays(2));
+        Long current = createBooking(itemId, now.minusDays(1), now.plusDays(1));
+        Long future = createBooking(itemId, now.plusDays(2), now.plusDays(3));
+        Long rejected = createBooking(itemId, now.plusDays(4), now.plusDays(5));
+        createBooking(itemId, now.plusDays(6), now.plusDays(7));
+        bookingService.approveAll(userId, List.of(
+                new BookingDecisionDto(past, true),
+                new BookingDecisionDto(current, true),
+                new BookingDecisionDto(future, true),
+                new BookingDecisionDto(rejected, false)));
+
+        BookingCountersDto res = bookingService.getCountersByOwner(userId);
+
+        assertThat(res, equalTo(new BookingCountersDto(5, 1, 1, 1, 1, 1)));
+        assertThat(bookingService.getCountersByOwner(bookerId), equalTo(new BookingCountersDto(0, 0, 0, 0, 0, 0)));
+    }
+
     @Test
     public void findBookingTestByBooker() {
         Booking book = createDefaultBooking();
@@ -268,6 +353,14 @@ public class BookingServiceImplTest {
         assertThat(bookRes.getId(), equalTo(bookId));
     }
 
+    private Long createBooking(Long bookedItemId, LocalDateTime start, LocalDateTime end) {
+        CreateBookingDto createBookingDto = new CreateBookingDto();
+        createBookingDto.setStart(start);
+        createBookingDto.setEnd(end);
+        createBookingDto.setItemId(bookedItemId);
+        return bookingService.createBooking(createBookingDto, bookerId).getId();
+    }
+
     private Booking createDefaultBooking() {
         CreateBookingDto createBookingDto = new CreateBookingDto();
         createBookingDto.setStart(TEST_START);
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.stream.BookingStreamConsumer;
+import ru.practicum.shareit.booking.stream.SseSubscriber;
+import ru.practicum.shareit.event.model.DomainEvent;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class BookingStreamTest {
+    private static final long OWNER_ID = 1001L;
+    private static final long BOOKER_ID = 1002L;
+    private static final long STRANGER_ID = 1003L;
+
+    private final MockMvc mvc;
+    private final BookingStreamConsumer consumer;
+
+    @Test
+    public void shouldStreamBookingEventsToOwnerBookerAndGateway() throws Exception {
+        MvcResult owner = subscribe(OWNER_ID);
+        MvcResult booker = subscribe(BOOKER_ID);
+        MvcResult stranger = subscribe(STRANGER_ID);
+        MvcResult gateway = mvc.perform(get("/internal/bookings/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        consumer.consume(List.of(new DomainEvent(77L, EventType.BOOKING_APPROVED, 5L,
+                Map.of("itemId", 3, "ownerId", (int) OWNER_ID, "bookerId", (int) BOOKER_ID, "status", "APPROVED"),
+                LocalDateTime.now())));
+
+        for (MvcResult result : List.of(owner, booker, gateway)) {
+            String content = awaitContent(result, "event:BOOKING_APPROVED");
+            assertThat(content, containsString("id:77"));
+            assertThat(content, containsString("\"bookingId\":5"));
+            assertThat(content, containsString("\"status\":\"APPROVED\""));
+        }
+        assertThat(stranger.getResponse().getContentAsString(), not(containsString("BOOKING_APPROVED")));
+    }
+
+    @Test
+    public void shouldRequireUserHeaderOnPublicStream() throws Exception {
+        mvc.perform(get("/bookings/stream"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldDisconnectSlowSubscriber() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter blocked = new SseEmitter() {
+            @Override
+            public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            SseSubscriber subscriber = new SseSubscriber(OWNER_ID, blocked, 2, executor);
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("ping").build();
+
+            boolean accepted = true;
+            for (int i = 0; i < 10 && accepted; i++) {
+                accepted = subscriber.offer(frame);
+            }
+
+            assertThat(accepted, equalTo(false));
+            assertThat(subscriber.isClosed(), equalTo(true));
+            assertThat(subscriber.offer(frame), equalTo(false));
+            release.countDown();
+        }
+    }
+
+    private MvcResult subscribe(long userId) throws Exception {
+        return mvc.perform(get("/bookings/stream").header(CustomHttpHeader.USER_ID, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        String content = result.getResponse().getContentAsString();
+        for (int i = 0; i < 100 && !content.contains(expected); i++) {
+            Thread.sleep(50);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content, containsString(expected));
+        return content;
+    }
+}
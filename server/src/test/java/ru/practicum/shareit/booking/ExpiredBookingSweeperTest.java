@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ExpiredBookingSweeper;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.event.model.OutboxEvent;
+import ru.practicum.shareit.exception.ConditionsNotMetException;
+import ru.practicum.shareit.item.dto.RequestItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shareit.bookings.sweeper.enabled=false",
+                "shareit.bookings.sweeper.chunk-size=2"
+        }
+)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ExpiredBookingSweeperTest {
+    private final EntityManager em;
+    private final ExpiredBookingSweeper sweeper;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    public void setUp() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("ownerName");
+        userRequestDto.setEmail("ownerEmail");
+        ownerId = userService.create(userRequestDto).getId();
+
+        userRequestDto = new UserRequestDto();
+        userRequestDto.setName("bookerName");
+        userRequestDto.setEmail("bookerEmail");
+        bookerId = userService.create(userRequestDto).getId();
+
+        itemId = itemService.create(new RequestItemDto("drill", "drill description", true, null), ownerId).getId();
+    }
+
+    @Test
+    public void shouldCancelExpiredWaitingBookingsInChunks() {
+        LocalDateTime past = LocalDateTime.now().minusDays(10);
+        List<Long> expired = List.of(book(past), book(past.plusDays(1)), book(past.plusDays(2)));
+        Long approved = book(past.plusDays(3));
+        bookingService.approve(ownerId, approved, true);
+        Long future = book(LocalDateTime.now().plusDays(10));
+
+        int canceled = sweeper.sweep();
+
+        assertThat(canceled, greaterThanOrEqualTo(3));
+        em.clear();
+        for (Long id : expired) {
+            assertThat(em.find(Booking.class, id).getStatus(), equalTo(BookingStatus.CANCELED));
+        }
+        assertThat(em.find(Booking.class, approved).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(em.find(Booking.class, future).getStatus(), equalTo(BookingStatus.WAITING));
+
+        List<OutboxEvent> events = em.createQuery(
+                        "select e from OutboxEvent e where e.eventType = :type and e.aggregateId in :ids", OutboxEvent.class)
+                .setParameter("type", EventType.BOOKING_CANCELED)
+                .setParameter("ids", expired)
+                .getResultList();
+        assertThat(events.size(), equalTo(3));
+    }
+
+    @Test
+    public void shouldNotApproveCanceledBooking() {
+        Long bookingId = book(LocalDateTime.now().minusDays(1));
+        sweeper.sweep();
+        em.clear();
+
+        Assertions.assertThrows(ConditionsNotMetException.class,
+                () -> bookingService.approve(ownerId, bookingId, true));
+    }
+
+    private Long book(LocalDateTime start) {
+        CreateBookingDto createBookingDto = new CreateBookingDto();
+        createBookingDto.setItemId(itemId);
+        createBookingDto.setStart(start);
+        createBookingDto.setEnd(start.plusHours(5));
+        return bookingService.createBooking(createBookingDto, bookerId).getId();
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounts;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.OwnerBookingCounters;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.config.ClockConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OwnerBookingCountersTest {
+    private static final Long OWNER_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0, 0);
+
+    private BookingRepository bookingRepository;
+    private Item item;
+
+    @BeforeEach
+    public void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.countByOwner(eq(OWNER_ID), any()))
+                .thenReturn(new BookingCounts(1, 0, 0, 0, 1, 0, null));
+
+        User owner = new User();
+        owner.setId(OWNER_ID);
+        item = new Item();
+        item.setOwner(owner);
+    }
+
+    @Test
+    public void shouldApplyChangesWithoutReloading() {
+        OwnerBookingCounters counters = new OwnerBookingCounters(bookingRepository, ClockConfig.fixedAt(NOW), 100);
+        counters.get(OWNER_ID);
+
+        Booking future = booking(NOW.plusDays(1), NOW.plusDays(2));
+        counters.record(future, null, BookingStatus.WAITING);
+        counters.record(future, BookingStatus.WAITING, BookingStatus.APPROVED);
+        counters.record(booking(NOW.minusDays(1), NOW.plusDays(1)), null, BookingStatus.REJECTED);
+        BookingCounts counts = counters.get(OWNER_ID);
+
+        assertThat(counts.all(), equalTo(3L));
+        assertThat(counts.waiting(), equalTo(1L));
+        assertThat(counts.future(), equalTo(1L));
+        assertThat(counts.rejected(), equalTo(1L));
+        assertThat(counts.current(), equalTo(0L));
+        assertThat(counts.nextChange(), equalTo(NOW.plusDays(1)));
+        verify(bookingRepository, times(1)).countByOwner(eq(OWNER_ID), any());
+    }
+
+    @Test
+    public void shouldReloadAfterApprovedBookingBoundary() {
+        MovableClock clock = new MovableClock(NOW);
+        OwnerBookingCounters counters = new OwnerBookingCounters(bookingRepository, clock, 100);
+        counters.get(OWNER_ID);
+        counters.record(booking(NOW.plusSeconds(10), NOW.plusDays(1)), BookingStatus.WAITING, BookingStatus.APPROVED);
+        clock.set(NOW.plusSeconds(5));
+        counters.get(OWNER_ID);
+        verify(bookingRepository, times(1)).countByOwner(eq(OWNER_ID), any());
+
+        clock.set(NOW.plusSeconds(10));
+        counters.get(OWNER_ID);
+        verify(bookingRepository, times(2)).countByOwner(eq(OWNER_ID), any());
+    }
+
+    @Test
+    public void shouldReloadInNextTimeBucket() {
+        MovableClock clock = new MovableClock(NOW);
+        OwnerBookingCounters counters = new OwnerBookingCounters(bookingRepository, clock, 100);
+        counters.get(OWNER_ID);
+        clock.set(NOW.plusMinutes(1));
+        counters.get(OWNER_ID);
+
+        verify(bookingRepository, times(2)).countByOwner(eq(OWNER_ID), any());
+    }
+
+    @Test
+    public void shouldCapOwners() {
+        when(bookingRepository.countByOwner(any(), any())).thenReturn(new BookingCounts(1, 0, 0, 0, 1, 0, null));
+        OwnerBookingCounters counters = new OwnerBookingCounters(bookingRepository, ClockConfig.fixedAt(NOW), 10);
+        for (long ownerId = 1; ownerId <= 100; ownerId++) {
+            counters.get(ownerId);
+        }
+        counters.get(100L);
+
+        verify(bookingRepository, times(100)).countByOwner(any(), any()); // Последний владелец остался в кэше
+        counters.get(1L);
+        verify(bookingRepository, times(101)).countByOwner(any(), any()); // Первый был вытеснен
+    }
+
+    @Test
+    public void countsShouldBeValidUntilNextChange() {
+        BookingCounts counts = new BookingCounts(1L, 0L, 0L, 1L, 0L, 0L, NOW.plusHours(2), NOW.plusHours(1));
+
+        assertThat(counts.nextChange(), equalTo(NOW.plusHours(1)));
+        assertThat(counts.isValidAt(NOW), equalTo(true));
+        assertThat(counts.isValidAt(NOW.plusHours(1)), equalTo(false));
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
+    }
+
+    private static class MovableClock extends Clock {
+        private Clock delegate;
+
+        MovableClock(LocalDateTime time) {
+            set(time);
+        }
+
+        void set(LocalDateTime time) {
+            delegate = ClockConfig.fixedAt(time);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return delegate.getZone();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return delegate.withZone(zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return delegate.instant();
+        }
+    }
+}
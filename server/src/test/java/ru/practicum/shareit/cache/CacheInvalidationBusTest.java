@@ -0,0 +1,169 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.practicum.shareit.TestMeterRegistries;
+import ru.practicum.shareit.booking.model.BookingCounts;
+import ru.practicum.shareit.booking.service.OwnerBookingCounters;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.config.ClockConfig;
+
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CacheInvalidationBusTest {
+    private static final Long OWNER_ID = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0, 0);
+
+    @Test
+    public void peerShouldDropCachedEntryChangedOnAnotherNode() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.countByOwner(eq(OWNER_ID), any()))
+                .thenReturn(new BookingCounts(1, 0, 0, 0, 1, 0, null));
+        OwnerBookingCounters peerCounters = new OwnerBookingCounters(bookingRepository, ClockConfig.fixedAt(NOW), 100);
+        RecordingListener localListener = new RecordingListener();
+
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        CacheInvalidationBus local = bus(transport, "a", List.of(localListener));
+        bus(transport, "b", List.of(peerCounters));
+
+        peerCounters.get(OWNER_ID);
+        peerCounters.get(OWNER_ID);
+        verify(bookingRepository, times(1)).countByOwner(eq(OWNER_ID), any());
+
+        local.publish(CacheRegion.OWNER_BOOKINGS, OWNER_ID);
+        peerCounters.get(OWNER_ID);
+
+        verify(bookingRepository, times(2)).countByOwner(eq(OWNER_ID), any());
+        assertThat(localListener.keys, empty()); // Свои сообщения узел не применяет
+    }
+
+    @Test
+    public void shouldSendTransactionKeysOnceAfterCommitOnly() {
+        AtomicInteger messages = new AtomicInteger();
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport() {
+            @Override
+            public int send(InvalidationMessage message) {
+                messages.incrementAndGet();
+                return super.send(message);
+            }
+        };
+        CacheInvalidationBus local = bus(transport, "a", List.of());
+        RecordingListener peer = new RecordingListener();
+        bus(transport, "b", List.of(peer));
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> local.publish(CacheRegion.ITEM, 10L));
+        assertThat(peer.keys, empty());
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            local.publish(CacheRegion.ITEM, 10L);
+            local.publish(CacheRegion.ITEM_BOOKINGS, 10L);
+            local.publish(CacheRegion.ITEM, 10L);
+            assertThat(peer.keys, empty());
+        });
+        assertThat(peer.keys, equalTo(List.of(
+                new InvalidationMessage.Key(CacheRegion.ITEM, 10L),
+                new InvalidationMessage.Key(CacheRegion.ITEM_BOOKINGS, 10L))));
+        assertThat(messages.get(), equalTo(1));
+    }
+
+    @Test
+    public void udpTransportShouldDeliverKeysToPeers() throws Exception {
+        InetSocketAddress anyPort = new InetSocketAddress("127.0.0.1", 0);
+        try (UdpInvalidationTransport peerTransport = new UdpInvalidationTransport(anyPort, List.of());
+             UdpInvalidationTransport localTransport = new UdpInvalidationTransport(anyPort,
+                     List.of(new InetSocketAddress("127.0.0.1", peerTransport.getLocalPort())))) {
+            RecordingListener peer = new RecordingListener();
+            bus(peerTransport, "b", List.of(peer));
+            CacheInvalidationBus local = bus(localTransport, "a", List.of());
+
+            int keys = UdpInvalidationTransport.MAX_KEYS + 10; // Две датаграммы
+            LongStream.rangeClosed(1, keys).forEach(id -> local.publish(CacheRegion.USER, id));
+
+            for (int i = 0; i < 100 && peer.keys.size() < keys; i++) {
+                Thread.sleep(50);
+            }
+            assertThat(peer.keys, hasSize(keys));
+        }
+    }
+
+    @Test
+    public void udpTransportShouldKeepSendingAfterPeerFailure() throws Exception {
+        InetSocketAddress anyPort = new InetSocketAddress("127.0.0.1", 0);
+        try (UdpInvalidationTransport peerTransport = new UdpInvalidationTransport(anyPort, List.of());
+             UdpInvalidationTransport localTransport = new UdpInvalidationTransport(anyPort, List.of(
+                     new InetSocketAddress("127.0.0.1", 0), // На порт 0 отправка отклоняется
+                     new InetSocketAddress("127.0.0.1", peerTransport.getLocalPort())))) {
+            RecordingListener peer = new RecordingListener();
+            peerTransport.subscribe(message -> message.keys().forEach(key -> peer.invalidate(key.region(), key.id())));
+
+            int keys = UdpInvalidationTransport.MAX_KEYS + 10;
+            List<InvalidationMessage.Key> message = LongStream.rangeClosed(1, keys)
+                    .mapToObj(id -> new InvalidationMessage.Key(CacheRegion.USER, id))
+                    .toList();
+            int failures = localTransport.send(new InvalidationMessage("a", message));
+
+            for (int i = 0; i < 100 && peer.keys.size() < keys; i++) {
+                Thread.sleep(50);
+            }
+            assertThat(failures, equalTo(2));
+            assertThat(peer.keys, hasSize(keys));
+        }
+    }
+
+    @Test
+    public void udpDecodeShouldRejectUnknownFormat() {
+        assertThat(UdpInvalidationTransport.decode("v1 node\nITEM 5"), equalTo(
+                new InvalidationMessage("node", List.of(new InvalidationMessage.Key(CacheRegion.ITEM, 5L)))));
+        assertThat(UdpInvalidationTransport.decode("v2 node\nITEM 5"), equalTo(null));
+        assertThat(UdpInvalidationTransport.decode("v1 node\nUNKNOWN 5"), equalTo(null));
+    }
+
+    private static CacheInvalidationBus bus(InvalidationTransport transport, String nodeId,
+                                            List<CacheInvalidationListener> listeners) {
+        return new CacheInvalidationBus(transport, listeners,
+                TestMeterRegistries.provider(new SimpleMeterRegistry()), nodeId);
+    }
+
+    private static void inTransaction(int status, Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+            }
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static class RecordingListener implements CacheInvalidationListener {
+        private final List<InvalidationMessage.Key> keys = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void invalidate(CacheRegion region, Long id) {
+            keys.add(new InvalidationMessage.Key(region, id));
+        }
+    }
+}
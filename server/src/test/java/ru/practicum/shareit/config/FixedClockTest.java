@@ -0,0 +1,55 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.TimeBucket;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.clock.fixed=2026-03-01T10:15:30"
+)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class FixedClockTest {
+    private static final LocalDateTime FIXED_TIME = LocalDateTime.of(2026, 3, 1, 10, 15, 30);
+
+    private final Clock clock;
+    private final ItemRequestService itemRequestService;
+    private final UserService userService;
+
+    @Test
+    public void requestCreatedShouldUseClock() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("clockUser");
+        userRequestDto.setEmail("clockUserEmail");
+        Long userId = userService.create(userRequestDto).getId();
+
+        CreateItemRequestDto requestDto = new CreateItemRequestDto();
+        requestDto.setDescription("clockRequest");
+        ItemRequestDto res = itemRequestService.create(requestDto, userId);
+
+        assertThat(res.getCreated(), equalTo(FIXED_TIME));
+    }
+
+    @Test
+    public void timeBucketShouldBeTruncatedToMinute() {
+        TimeBucket bucket = TimeBucket.of(clock);
+
+        assertThat(bucket.start(clock.getZone()), equalTo(LocalDateTime.of(2026, 3, 1, 10, 15)));
+        assertThat(TimeBucket.of(ClockConfig.fixedAt(FIXED_TIME.plusSeconds(29))), equalTo(bucket));
+    }
+}
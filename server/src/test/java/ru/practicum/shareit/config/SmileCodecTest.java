@@ -0,0 +1,120 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDtoForRequestAnswer;
+import ru.practicum.shareit.item.dto.RequestItemDto;
+import ru.practicum.shareit.item.dto.ResponseItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.dto.UserResponseDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class SmileCodecTest {
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final MockMvc mvc;
+    private final ObjectMapper jsonMapper;
+    private final MappingJackson2SmileHttpMessageConverter smileConverter;
+    private final UserService userService;
+
+    @Test
+    public void shouldServeSmileOnlyWhenAccepted() throws Exception {
+        ObjectMapper smileMapper = smileConverter.getObjectMapper();
+        UserRequestDto user = new UserRequestDto();
+        user.setName("smileOwner");
+        user.setEmail("smileOwner@example.com");
+        Long ownerId = userService.create(user).getId();
+
+        byte[] created = mvc.perform(post("/items")
+                        .header(CustomHttpHeader.USER_ID, ownerId)
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(new RequestItemDto("saw", "hand saw", true, null))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        Map<?, ?> item = smileMapper.readValue(created, Map.class);
+        assertThat(item.get("name"), equalTo("saw"));
+
+        mvc.perform(get("/items/{itemId}", item.get("id")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * Размер и разбор (в Object, как это делает шлюз) для типичных ответов: Smile короче JSON и разбирается в то же значение.
+     */
+    @Test
+    public void smileShouldBeSmallerThanJsonForBookingListsAndRequestTrees() throws Exception {
+        ObjectMapper smileMapper = smileConverter.getObjectMapper();
+        Map<String, List<?>> payloads = Map.of("bookings", bookingList(), "requests", requestTrees());
+
+        for (Map.Entry<String, List<?>> payload : payloads.entrySet()) {
+            byte[] json = jsonMapper.writeValueAsBytes(payload.getValue());
+            byte[] smile = smileMapper.writeValueAsBytes(payload.getValue());
+
+            assertThat(payload.getKey(), smile.length, lessThan(json.length));
+            assertThat(smileMapper.readValue(smile, Object.class), equalTo(jsonMapper.readValue(json, Object.class)));
+        }
+    }
+
+    private static List<BookingDto> bookingList() {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 10, 0);
+        List<BookingDto> bookings = new ArrayList<>();
+        for (long i = 1; i <= 200; i++) {
+            ResponseItemDto item = new ResponseItemDto(i % 10, "Дрель " + i % 10,
+                    "Аккумуляторная дрель-шуруповёрт с набором бит", true, null, null, null);
+            UserResponseDto booker = new UserResponseDto(100 + i % 40, "booker" + i % 40 + "@example.com",
+                    "Арендатор " + i % 40);
+            bookings.add(new BookingDto(i, start.plusDays(i), start.plusDays(i).plusHours(6), item, booker,
+                    BookingStatus.APPROVED));
+        }
+        return bookings;
+    }
+
+    private static List<ItemRequestDto> requestTrees() {
+        LocalDateTime created = LocalDateTime.of(2026, 1, 1, 10, 0);
+        List<ItemRequestDto> requests = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            List<ItemDtoForRequestAnswer> items = new ArrayList<>();
+            for (long j = 1; j <= 5; j++) {
+                ItemDtoForRequestAnswer item = new ItemDtoForRequestAnswer();
+                item.setId(i * 10 + j);
+                item.setName("Стремянка " + j);
+                item.setOwnerId(j);
+                items.add(item);
+            }
+            requests.add(new ItemRequestDto(i, "Нужна стремянка на выходные, высота от 2 м", created.plusHours(i), items));
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,233 @@
+package ru.practicum.shareit.event;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.event.model.DeadLetterReason;
+import ru.practicum.shareit.event.model.DomainEvent;
+import ru.practicum.shareit.event.model.EventType;
+import ru.practicum.shareit.event.model.OutboxDeadLetter;
+import ru.practicum.shareit.event.model.OutboxDelivery;
+import ru.practicum.shareit.event.model.OutboxEvent;
+import ru.practicum.shareit.event.service.DomainEventConsumer;
+import ru.practicum.shareit.event.service.OutboxDispatcher;
+import ru.practicum.shareit.event.storage.OutboxDeadLetterRepository;
+import ru.practicum.shareit.event.storage.OutboxDeliveryRepository;
+import ru.practicum.shareit.event.storage.OutboxEventRepository;
+import ru.practicum.shareit.item.dto.RequestItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shareit.events.dispatcher.enabled=false",
+                "shareit.events.max-attempts=5"
+        }
+)
+@Import(OutboxDispatcherTest.RecordingConsumerConfig.class)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class OutboxDispatcherTest {
+    private static final int MAX_ATTEMPTS = 5;
+    private final EntityManager em;
+    private final OutboxDispatcher outboxDispatcher;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+    private final RecordingConsumer recordingConsumer;
+    private final CountingConsumer countingConsumer;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    public void setUp() {
+        outboxEventRepository.deleteAll();
+        outboxDeadLetterRepository.deleteAll();
+        recordingConsumer.events.clear();
+        recordingConsumer.fail = false;
+        countingConsumer.events.clear();
+
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("ownerName");
+        userRequestDto.setEmail("ownerEmail");
+        ownerId = userService.create(userRequestDto).getId();
+
+        userRequestDto = new UserRequestDto();
+        userRequestDto.setName("bookerName");
+        userRequestDto.setEmail("bookerEmail");
+        bookerId = userService.create(userRequestDto).getId();
+
+        itemId = itemService.create(new RequestItemDto("drill", "drill description", true, null), ownerId).getId();
+    }
+
+    @Test
+    public void shouldDeliverEventsWrittenInServiceTransactionAndDeleteThem() {
+        BookingDto booking = createBooking();
+        bookingService.approve(ownerId, booking.getId(), true);
+
+        int delivered = outboxDispatcher.dispatch();
+
+        assertThat(delivered, equalTo(3));
+        assertThat(recordingConsumer.events.stream().map(DomainEvent::type).toList(),
+                equalTo(List.of(EventType.ITEM_CREATED, EventType.BOOKING_CREATED, EventType.BOOKING_APPROVED)));
+        DomainEvent approvedEvent = recordingConsumer.events.getLast();
+        assertThat(approvedEvent.aggregateId(), equalTo(booking.getId()));
+        assertThat(((Number) approvedEvent.payload().get("ownerId")).longValue(), equalTo(ownerId));
+        assertThat(((Number) approvedEvent.payload().get("bookerId")).longValue(), equalTo(bookerId));
+        assertThat(approvedEvent.payload().get("status"), equalTo("APPROVED"));
+        assertThat(outboxEventRepository.count(), equalTo(0L));
+    }
+
+    @Test
+    public void shouldKeepEventsAndCountAttemptsWhenConsumerFails() {
+        recordingConsumer.fail = true;
+
+        assertThat(outboxDispatcher.dispatch(), equalTo(0));
+
+        em.clear();
+        List<OutboxEvent> pending = outboxEventRepository.findAll();
+        assertThat(pending.size(), equalTo(1));
+        assertThat(pending.getFirst().getAttempts(), equalTo(1));
+
+        recordingConsumer.fail = false;
+        assertThat(outboxDispatcher.dispatch(), equalTo(1));
+    }
+
+    @Test
+    public void shouldRetryOnlyConsumersThatFailed() {
+        recordingConsumer.fail = true;
+        outboxDispatcher.dispatch();
+        outboxDispatcher.dispatch();
+        assertThat(countingConsumer.events.size(), equalTo(1));
+
+        em.clear();
+        List<OutboxDelivery> deliveries = outboxDeliveryRepository.findAll();
+        assertThat(deliveries.stream()
+                .filter(delivery -> delivery.getConsumer().equals("RecordingConsumer"))
+                .map(OutboxDelivery::getAttempts)
+                .toList(), equalTo(List.of(2)));
+        assertThat(deliveries.stream()
+                .filter(delivery -> delivery.getConsumer().equals("CountingConsumer"))
+                .map(OutboxDelivery::isDelivered)
+                .toList(), equalTo(List.of(true)));
+
+        recordingConsumer.fail = false;
+        assertThat(outboxDispatcher.dispatch(), equalTo(1));
+        assertThat(recordingConsumer.events.size(), equalTo(1));
+        assertThat(countingConsumer.events.size(), equalTo(1)); // Уже обработавшему повтор не доставлен
+        em.clear();
+        assertThat(outboxEventRepository.count(), equalTo(0L));
+        assertThat(outboxDeliveryRepository.count(), equalTo(0L));
+    }
+
+    @Test
+    public void shouldMoveEventToDeadLettersAfterMaxAttempts() {
+        recordingConsumer.fail = true;
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            assertThat(outboxDispatcher.dispatch(), equalTo(0));
+        }
+
+        em.flush();
+        em.clear();
+        assertThat(outboxEventRepository.count(), equalTo(0L));
+        assertThat(outboxDeliveryRepository.count(), equalTo(0L));
+        List<OutboxDeadLetter> deadLetters = outboxDeadLetterRepository.findAll();
+        assertThat(deadLetters.size(), equalTo(1));
+        assertThat(deadLetters.getFirst().getEventType(), equalTo(EventType.ITEM_CREATED));
+        assertThat(deadLetters.getFirst().getAggregateId(), equalTo(itemId));
+        assertThat(deadLetters.getFirst().getFailedConsumers(), equalTo("RecordingConsumer"));
+        assertThat(deadLetters.getFirst().getReason(), equalTo(DeadLetterReason.ATTEMPTS_EXHAUSTED));
+        assertThat(countingConsumer.events.size(), equalTo(1));
+    }
+
+    @Test
+    public void shouldDeadLetterUnreadablePayloadAndDeliverTheRest() {
+        OutboxEvent broken = new OutboxEvent();
+        broken.setEventType(EventType.BOOKING_CREATED);
+        broken.setAggregateId(-1L);
+        broken.setPayload("{not json");
+        broken.setCreated(LocalDateTime.now());
+        Long brokenId = outboxEventRepository.save(broken).getId();
+        createBooking();
+
+        assertThat(outboxDispatcher.dispatch(), equalTo(2));
+
+        assertThat(recordingConsumer.events.stream().map(DomainEvent::type).toList(),
+                equalTo(List.of(EventType.ITEM_CREATED, EventType.BOOKING_CREATED)));
+        em.flush();
+        em.clear();
+        assertThat(outboxEventRepository.count(), equalTo(0L));
+        List<OutboxDeadLetter> deadLetters = outboxDeadLetterRepository.findAll();
+        assertThat(deadLetters.size(), equalTo(1));
+        assertThat(deadLetters.getFirst().getId(), equalTo(brokenId));
+        assertThat(deadLetters.getFirst().getReason(), equalTo(DeadLetterReason.BAD_PAYLOAD));
+        assertThat(deadLetters.getFirst().getPayload(), equalTo("{not json"));
+    }
+
+    private BookingDto createBooking() {
+        CreateBookingDto createBookingDto = new CreateBookingDto();
+        createBookingDto.setItemId(itemId);
+        createBookingDto.setStart(LocalDateTime.of(2030, 1, 1, 10, 0));
+        createBookingDto.setEnd(LocalDateTime.of(2030, 1, 2, 10, 0));
+        return bookingService.createBooking(createBookingDto, bookerId);
+    }
+
+    static class RecordingConsumer implements DomainEventConsumer {
+        final List<DomainEvent> events = new ArrayList<>();
+        boolean fail;
+
+        @Override
+        public void consume(List<DomainEvent> batch) {
+            if (fail) {
+                throw new IllegalStateException("consumer is down");
+            }
+            events.addAll(batch);
+        }
+    }
+
+    static class CountingConsumer implements DomainEventConsumer {
+        final List<DomainEvent> events = new ArrayList<>();
+
+        @Override
+        public void consume(List<DomainEvent> batch) {
+            events.addAll(batch);
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingConsumerConfig {
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+
+        @Bean
+        CountingConsumer countingConsumer() {
+            return new CountingConsumer();
+        }
+    }
+}
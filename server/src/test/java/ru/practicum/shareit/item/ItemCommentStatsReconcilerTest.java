@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.RequestItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCommentStatsReconciler;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "shareit.items.comment-stats.repair.enabled=false",
+                "shareit.items.comment-stats.chunk-size=2"
+        }
+)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ItemCommentStatsReconcilerTest {
+    private final EntityManager em;
+    private final ItemCommentStatsReconciler reconciler;
+    private final ItemService itemService;
+    private final UserService userService;
+
+    @Test
+    public void shouldRepairDriftedCommentStats() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("ownerName");
+        userRequestDto.setEmail("ownerEmail");
+        Long ownerId = userService.create(userRequestDto).getId();
+        Long commentedId = itemService.create(new RequestItemDto("drill", "drill", true, null), ownerId).getId();
+        Long driftedId = itemService.create(new RequestItemDto("saw", "saw", true, null), ownerId).getId();
+        Long cleanId = itemService.create(new RequestItemDto("tent", "tent", true, null), ownerId).getId();
+
+        LocalDateTime created = LocalDateTime.of(2026, 1, 1, 12, 0);
+        em.createNativeQuery("INSERT INTO comments (user_id, item_id, comment, created) VALUES (?1, ?2, 'text', ?3)")
+                .setParameter(1, ownerId)
+                .setParameter(2, commentedId)
+                .setParameter(3, created)
+                .executeUpdate();
+        em.createNativeQuery("UPDATE items SET comment_count = 5, last_comment_at = ?1 WHERE id = ?2")
+                .setParameter(1, created)
+                .setParameter(2, driftedId)
+                .executeUpdate();
+
+        int repaired = reconciler.reconcile();
+
+        assertThat(repaired, greaterThanOrEqualTo(2));
+        em.clear();
+        Item commented = em.find(Item.class, commentedId);
+        assertThat(commented.getCommentCount(), equalTo(1L));
+        assertThat(commented.getLastCommentAt(), equalTo(created));
+        Item drifted = em.find(Item.class, driftedId);
+        assertThat(drifted.getCommentCount(), equalTo(0L));
+        assertThat(drifted.getLastCommentAt(), nullValue());
+        assertThat(em.find(Item.class, cleanId).getCommentCount(), equalTo(0L));
+        assertThat(reconciler.reconcile(), equalTo(0));
+    }
+}
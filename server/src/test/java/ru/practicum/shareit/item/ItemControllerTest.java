@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.CreateCommentDto;
 import ru.practicum.shareit.exception.ConditionsNotMetException;
 import ru.practicum.shareit.item.controller.ItemController;
@@ -26,6 +27,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -139,6 +141,27 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.length()", is(1)));
     }
 
+    @Test
+    public void findCommentsShouldSetNextCursorForFullPage() throws Exception {
+        CommentDto first = new CommentDto(7L, null, "author", "text", LocalDateTime.now());
+        CommentDto second = new CommentDto(5L, null, "author", "text", LocalDateTime.now());
+        when(itemService.findComments(anyLong(), any(), anyInt())).thenReturn(List.of(first, second));
+
+        mvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("size", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CustomHttpHeader.NEXT_CURSOR, "5"))
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].item").doesNotExist());
+
+        mvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("size", "3")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CustomHttpHeader.NEXT_CURSOR));
+    }
+
     @Test
     public void postCommentTest() throws Exception {
         CreateCommentDto createDto = new CreateCommentDto();
@@ -185,7 +208,9 @@ public class ItemControllerTest {
                 lastStart,
                 lastEnd,
                 nextStart,
-                nextEnd
+                nextEnd,
+                0L,
+                null
         );
     }
 
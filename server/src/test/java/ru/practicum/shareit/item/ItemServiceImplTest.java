@@ -306,6 +306,74 @@ public class ItemServiceImplTest {
         Assertions.assertThrows(NotFoundException.class, () -> service.findById(9999L));
     }
 
+    @Test
+    public void findByIdShouldReturnRecentCommentsAndCount() {
+        Long itemId = service.create(new RequestItemDto("testName", "testDescription", true, null), userId).getId();
+        User booker = createAndApproveBooking(itemId);
+        for (int i = 0; i < 12; i++) {
+            CreateCommentDto comment = new CreateCommentDto();
+            comment.setText("comment " + i);
+            service.postComment(comment, itemId, booker.getId());
+        }
+
+        ResponseItemDto responseDto = service.findById(itemId);
+
+        assertThat(responseDto.getCommentCount(), equalTo(12L));
+        assertThat(responseDto.getComments().size(), equalTo(10));
+        assertThat(responseDto.getComments().getFirst().getText(), equalTo("comment 11"));
+        assertThat(responseDto.getComments().getFirst().getItem(), nullValue());
+    }
+
+    @Test
+    public void listsShouldCarryCommentStatsWithoutComments() {
+        Long itemId = service.create(new RequestItemDto("statsName", "statsDescription", true, null), userId).getId();
+        assertThat(service.findBySearch("statsName").getFirst().getCommentCount(), equalTo(0L));
+
+        User booker = createAndApproveBooking(itemId);
+        CreateCommentDto comment = new CreateCommentDto();
+        comment.setText("first");
+        service.postComment(comment, itemId, booker.getId());
+        comment.setText("second");
+        CommentDto last = service.postComment(comment, itemId, booker.getId());
+        // Время, как оно сохранено в БД (TIMESTAMP хранит микросекунды)
+        LocalDateTime lastCreated = service.findComments(itemId, null, 1).getFirst().getCreated();
+
+        ResponseItemDto found = service.findBySearch("statsName").getFirst();
+        assertThat(found.getCommentCount(), equalTo(2L));
+        assertThat(found.getLastCommentAt(), equalTo(lastCreated));
+        assertThat(found.getComments(), nullValue());
+
+        OwnerItemDto owned = service.findAllByOwner(userId).stream()
+                .filter(item -> item.getId().equals(itemId))
+                .findFirst()
+                .orElseThrow();
+        assertThat(owned.getCommentCount(), equalTo(2L));
+        assertThat(owned.getLastCommentAt(), equalTo(lastCreated));
+    }
+
+    @Test
+    public void findCommentsShouldPageByCursor() {
+        Long itemId = service.create(new RequestItemDto("testName", "testDescription", true, null), userId).getId();
+        User booker = createAndApproveBooking(itemId);
+        for (int i = 0; i < 7; i++) {
+            CreateCommentDto comment = new CreateCommentDto();
+            comment.setText("comment " + i);
+            service.postComment(comment, itemId, booker.getId());
+        }
+
+        List<CommentDto> first = service.findComments(itemId, null, 3);
+        List<CommentDto> second = service.findComments(itemId, first.getLast().getId(), 3);
+        List<CommentDto> last = service.findComments(itemId, second.getLast().getId(), 3);
+
+        assertThat(first.stream().map(CommentDto::getText).toList(),
+                equalTo(List.of("comment 6", "comment 5", "comment 4")));
+        assertThat(second.stream().map(CommentDto::getText).toList(),
+                equalTo(List.of("comment 3", "comment 2", "comment 1")));
+        assertThat(last.stream().map(CommentDto::getText).toList(), equalTo(List.of("comment 0")));
+        assertThat(first.getFirst().getAuthorName(), equalTo("bookerName"));
+        Assertions.assertThrows(NotFoundException.class, () -> service.findComments(9999L, null, 3));
+    }
+
     @Test
     public void findAllByOwnerTest() {
         RequestItemDto createDto = new RequestItemDto(
@@ -360,6 +428,36 @@ public class ItemServiceImplTest {
         assertThat(resItem.getAvailable(), equalTo(createDto.getAvailable()));
     }
 
+    @Test
+    public void findBySearchInPeriodTest() {
+        UserRequestDto bookerDto = new UserRequestDto();
+        bookerDto.setName("bookerName");
+        bookerDto.setEmail("bookerEmail");
+        Long bookerId = userService.create(bookerDto).getId();
+
+        Long bookedItemId = service.create(new RequestItemDto("tent one", "big tent", true, null), userId).getId();
+        Long freeItemId = service.create(new RequestItemDto("tent two", "small tent", true, null), userId).getId();
+        service.create(new RequestItemDto("tent three", "unavailable tent", false, null), userId);
+
+        LocalDateTime weekend = LocalDateTime.of(2030, 6, 1, 0, 0);
+        CreateBookingDto createBookingDto = new CreateBookingDto();
+        createBookingDto.setItemId(bookedItemId);
+        createBookingDto.setStart(weekend.plusDays(1));
+        createBookingDto.setEnd(weekend.plusDays(3));
+        BookingDto booking = bookingService.createBooking(createBookingDto, bookerId);
+
+        assertThat(service.findBySearch("tent", weekend, weekend.plusDays(2)).size(), equalTo(2));
+
+        bookingService.approve(userId, booking.getId(), true);
+
+        List<ResponseItemDto> res = service.findBySearch("tent", weekend, weekend.plusDays(2));
+        assertThat(res.size(), equalTo(1));
+        assertThat(res.getFirst().getId(), equalTo(freeItemId));
+        assertThat(service.findBySearch("tent", weekend.plusDays(3), weekend.plusDays(4)).size(), equalTo(2));
+        Assertions.assertThrows(ConditionsNotMetException.class,
+                () -> service.findBySearch("tent", weekend.plusDays(2), weekend));
+    }
+
     @Test
     public void handleBlankText() {
         RequestItemDto createDto = new RequestItemDto(
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.limit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private static final long THRESHOLD_NANOS = 50_000_000;
+
+    @Test
+    public void writesShouldGetLargerShareOfLimitThanReads() {
+        AdaptiveConcurrencyLimiter limiter = fixedLimiter(10);
+        for (int i = 0; i < 7; i++) {
+            assertThat(limiter.tryAcquire(RequestClass.WRITE), equalTo(true));
+        }
+
+        assertThat(limiter.tryAcquire(RequestClass.SEARCH), equalTo(false));
+        assertThat(limiter.tryAcquire(RequestClass.LISTING), equalTo(true));
+        assertThat(limiter.tryAcquire(RequestClass.LISTING), equalTo(true));
+        assertThat(limiter.tryAcquire(RequestClass.LISTING), equalTo(false));
+        assertThat(limiter.tryAcquire(RequestClass.WRITE), equalTo(true));
+        assertThat(limiter.tryAcquire(RequestClass.WRITE), equalTo(false));
+
+        limiter.release();
+        assertThat(limiter.getInFlight(), equalTo(9));
+        assertThat(limiter.tryAcquire(RequestClass.WRITE), equalTo(true));
+    }
+
+    @Test
+    public void limitShouldShrinkOnSlowResponsesAndGrowOnFastOnes() {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter(20, 4, 200, THRESHOLD_NANOS, 0.9, 0.9, 0.7);
+
+        // При малой загрузке медленный ответ лимит не меняет
+        limiter.tryAcquire(RequestClass.WRITE);
+        limiter.onSample(THRESHOLD_NANOS * 2, false);
+        assertThat(limiter.getLimit(), equalTo(20.0));
+
+        for (int i = 0; i < 12; i++) {
+            limiter.tryAcquire(RequestClass.WRITE);
+        }
+        limiter.onSample(THRESHOLD_NANOS * 2, false);
+        assertThat(limiter.getLimit(), equalTo(18.0));
+
+        // Повторный сигнал в том же интервале лимит не уменьшает
+        limiter.onSample(0, true);
+        assertThat(limiter.getLimit(), equalTo(18.0));
+        for (int i = 0; i < 10; i++) {
+            limiter.release();
+        }
+
+        for (int i = 0; i < 18; i++) {
+            limiter.tryAcquire(RequestClass.WRITE);
+        }
+        for (int i = 0; i < 18; i++) {
+            limiter.onSample(1_000_000, false);
+        }
+        assertThat(limiter.getLimit(), greaterThan(18.0));
+        assertThat(limiter.getInFlight(), equalTo(0));
+    }
+
+    @Test
+    public void filterShouldShedWith503AndRetryAfter() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = fixedLimiter(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Map<RequestClass, Counter> shed = new EnumMap<>(RequestClass.class);
+        for (RequestClass requestClass : RequestClass.values()) {
+            shed.put(requestClass, registry.counter("shed", "class", requestClass.name()));
+        }
+        LoadSheddingFilter filter = new LoadSheddingFilter(limiter, new ObjectMapper(), shed, 2);
+
+        MockHttpServletResponse passed = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/bookings"), passed, new MockFilterChain());
+        assertThat(passed.getStatus(), equalTo(200));
+        assertThat(limiter.getInFlight(), equalTo(0));
+
+        limiter.tryAcquire(RequestClass.WRITE);
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/items/search"), rejected, new MockFilterChain());
+
+        assertThat(rejected.getStatus(), equalTo(503));
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER), equalTo("2"));
+        assertThat(rejected.getContentAsString(), containsString("Сервер перегружен"));
+        assertThat(shed.get(RequestClass.SEARCH).count(), equalTo(1.0));
+    }
+
+    private static AdaptiveConcurrencyLimiter fixedLimiter(int limit) {
+        return new AdaptiveConcurrencyLimiter(limit, limit, limit, THRESHOLD_NANOS, 0.9, 0.9, 0.7);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.TestMeterRegistries;
+import ru.practicum.shareit.item.dto.RequestItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class QueryStatsTest {
+    private final EntityManager em;
+    private final ItemService itemService;
+    private final UserService userService;
+
+    private Long userId;
+
+    @BeforeEach
+    public void setUp() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("statsUser");
+        userRequestDto.setEmail("statsUserEmail");
+        userId = userService.create(userRequestDto).getId();
+
+        itemService.create(new RequestItemDto("statsItem", "statsDescription", true, null), userId);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        QueryStats.stop();
+    }
+
+    @Test
+    public void shouldCountStatementsOfOwnerItems() {
+        QueryStats.start();
+        itemService.findAllByOwner(userId);
+        QueryStats stats = QueryStats.stop();
+
+        assertThat(stats.getStatements(), greaterThan(0));
+        assertThat(stats.getJdbcNanos(), greaterThan(0L));
+    }
+
+    @Test
+    public void shouldCountLoadedEntities() {
+        em.flush();
+        em.clear();
+
+        QueryStats.start();
+        itemService.findBySearch("statsItem");
+        QueryStats stats = QueryStats.stop();
+
+        assertThat(stats.getEntitiesLoaded(), greaterThan(0));
+    }
+
+    @Test
+    public void asyncRequestShouldNotLeaveStatsOnThread() {
+        QueryCountInterceptor interceptor =
+                new QueryCountInterceptor(TestMeterRegistries.provider(new SimpleMeterRegistry()), 20);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+
+        assertThat(QueryStats.stop(), nullValue());
+    }
+
+    @Test
+    public void stopWithoutStartShouldReturnNull() {
+        assertThat(QueryStats.stop(), nullValue());
+        QueryStats.start();
+        assertThat(QueryStats.stop().getStatements(), equalTo(0));
+    }
+}
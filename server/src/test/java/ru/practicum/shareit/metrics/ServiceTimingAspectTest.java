@@ -0,0 +1,61 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.States;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@Transactional
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE
+)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ServiceTimingAspectTest {
+    private final MeterRegistry meterRegistry;
+    private final BookingService bookingService;
+    private final UserService userService;
+
+    @Test
+    public void shouldRecordTimerWithStateAndSizeTags() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("timedUser");
+        userRequestDto.setEmail("timedUserEmail");
+        Long userId = userService.create(userRequestDto).getId();
+
+        bookingService.getBookingsByUser(userId, States.FUTURE);
+
+        Timer timer = meterRegistry.find("shareit.service")
+                .tag("method", "getBookingsByUser")
+                .tag("state", "FUTURE")
+                .tag("size", "0")
+                .timer();
+        assertThat(timer, notNullValue());
+        assertThat(timer.count(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldTagMethodsWithoutStateAsNone() {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("timedUser");
+        userRequestDto.setEmail("timedUserEmail");
+        userService.create(userRequestDto);
+
+        Timer timer = meterRegistry.find("shareit.service")
+                .tag("method", "create")
+                .tag("state", "none")
+                .tag("size", "none")
+                .timer();
+        assertThat(timer, notNullValue());
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.CustomHttpHeader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(properties = "shareit.tracing.exporter=memory")
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class TracingTest {
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    private final MockMvc mvc;
+    private final SpanExporter spanExporter;
+    private final UserService userService;
+    private final UserRepository userRepository;
+
+    @BeforeEach
+    public void clearSpans() {
+        ((InMemorySpanExporter) spanExporter).clear();
+    }
+
+    @Test
+    public void shouldContinueIncomingTraceThroughControllerServiceAndRepository() throws Exception {
+        UserRequestDto userRequestDto = new UserRequestDto();
+        userRequestDto.setName("tracedUser");
+        userRequestDto.setEmail("tracedUserEmail");
+        Long userId = userService.create(userRequestDto).getId();
+
+        mvc.perform(get("/users/{id}", userId)
+                        .header(CustomHttpHeader.TRACE_ID, TRACE_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CustomHttpHeader.TRACE_ID, TRACE_ID));
+
+        List<Span> spans = ((InMemorySpanExporter) spanExporter).getSpans(TRACE_ID);
+        Map<String, Span> byName = spans.stream().collect(Collectors.toMap(Span::name, Function.identity(), (a, b) -> a));
+
+        Span root = byName.get("server GET /users/" + userId);
+        Span controller = byName.get("UserController.findById");
+        Span service = byName.get("UserServiceImpl.findById");
+        Span repository = byName.get("UserRepository.findById");
+        assertThat(root, notNullValue());
+        assertThat(controller, notNullValue());
+        assertThat(service, notNullValue());
+        assertThat(repository, notNullValue());
+        assertThat(root.parentSpanId(), nullValue());
+        assertThat(controller.parentSpanId(), equalTo(root.spanId()));
+        assertThat(service.parentSpanId(), equalTo(controller.spanId()));
+        assertThat(repository.parentSpanId(), equalTo(service.spanId()));
+    }
+
+    @Test
+    public void shouldStartNewTraceWhenHeaderIsInvalid() throws Exception {
+        String traceId = mvc.perform(get("/users")
+                        .header(CustomHttpHeader.TRACE_ID, "not a trace id"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(CustomHttpHeader.TRACE_ID);
+
+        assertThat(traceId, notNullValue());
+        assertThat(traceId.length(), equalTo(32));
+        assertThat(((InMemorySpanExporter) spanExporter).getSpans(traceId).isEmpty(), equalTo(false));
+    }
+
+    @Test
+    public void repositoryCallOutsideTraceShouldNotStartTrace() {
+        userRepository.findAll(); // Как из фоновой задачи: без запроса и без трассы
+
+        assertThat(((InMemorySpanExporter) spanExporter).getSpans().isEmpty(), equalTo(true));
+    }
+}
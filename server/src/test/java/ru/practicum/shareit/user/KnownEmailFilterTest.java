@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.user.service.KnownEmailFilter;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KnownEmailFilterTest {
+    private static final int EMAILS = 10_000;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final KnownEmailFilter filter =
+            new KnownEmailFilter(userRepository, mock(PlatformTransactionManager.class), EMAILS, 0.01);
+
+    @Test
+    public void shouldClaimNothingUntilWarmedUp() {
+        when(userRepository.streamAllEmails()).thenReturn(Stream.of("Known@Example.com"));
+
+        assertThat(filter.isDefinitelyNew("other@example.com"), equalTo(false));
+
+        filter.warmUp();
+
+        assertThat(filter.isDefinitelyNew("known@example.com"), equalTo(false));
+        assertThat(filter.isDefinitelyNew("KNOWN@EXAMPLE.COM"), equalTo(false));
+    }
+
+    @Test
+    public void shouldNeverMissAddedEmailsAndRarelyFlagNewOnes() {
+        when(userRepository.streamAllEmails())
+                .thenReturn(IntStream.range(0, EMAILS).mapToObj(i -> "user" + i + "@example.com"));
+        filter.warmUp();
+
+        for (int i = 0; i < EMAILS; i++) {
+            assertThat(filter.isDefinitelyNew("user" + i + "@example.com"), equalTo(false));
+        }
+        long falsePositives = IntStream.range(0, EMAILS)
+                .filter(i -> !filter.isDefinitelyNew("signup" + i + "@example.org"))
+                .count();
+        assertThat(falsePositives, lessThan(EMAILS * 3L / 100));
+    }
+}
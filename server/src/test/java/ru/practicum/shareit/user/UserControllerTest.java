@@ -3,11 +3,13 @@ package ru.practicum.shareit.user;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -15,16 +17,23 @@ import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.util.CustomHttpHeader;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -51,6 +60,7 @@ public class UserControllerTest {
         user.setId(1L);
         user.setName(userDto.getName());
         user.setEmail(userDto.getEmail());
+        user.setVersion(3L);
     }
 
     @Test
@@ -66,7 +76,8 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(user.getId()), Long.class))
                 .andExpect(jsonPath("$.name", is(user.getName())))
-                .andExpect(jsonPath("$.email", is(user.getEmail())));
+                .andExpect(jsonPath("$.email", is(user.getEmail())))
+                .andExpect(jsonPath("$.version").doesNotExist());
     }
 
     @Test
@@ -87,7 +98,7 @@ public class UserControllerTest {
 
     @Test
     public void findAllTest() throws Exception {
-        when(userService.findAll())
+        when(userService.findAll(anyLong(), anyInt()))
                 .thenReturn(List.of(user));
 
         mvc.perform(get("/users")
@@ -98,7 +109,47 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.length()", is(1)))
                 .andExpect(jsonPath("$[0].id", is(user.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(user.getName())))
-                .andExpect(jsonPath("$[0].email", is(user.getEmail())));
+                .andExpect(jsonPath("$[0].email", is(user.getEmail())))
+                .andExpect(header().doesNotExist(CustomHttpHeader.NEXT_CURSOR));
+    }
+
+    @Test
+    public void findAllFullPageShouldReturnNextCursor() throws Exception {
+        when(userService.findAll(0L, 1))
+                .thenReturn(List.of(user));
+
+        mvc.perform(get("/users")
+                        .param("afterId", "0")
+                        .param("size", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(header().string(CustomHttpHeader.NEXT_CURSOR, String.valueOf(user.getId())));
+    }
+
+    @Test
+    public void exportTest() throws Exception {
+        User second = new User();
+        second.setId(2L);
+        second.setName("secondName");
+        second.setEmail("secondEmail");
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(user);
+            action.accept(second);
+            return null;
+        }).when(userService).forEachUser(any());
+
+        MvcResult result = mvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"email\":\"testEmail\",\"name\":\"testName\"}\n"
+                                + "{\"id\":2,\"email\":\"secondEmail\",\"name\":\"secondName\"}\n"));
     }
 
     @Test
@@ -116,6 +167,19 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(user.getEmail())));
     }
 
+    @Test
+    public void existsTest() throws Exception {
+        when(userService.existsById(1L)).thenReturn(true);
+        when(userService.existsById(2L)).thenReturn(false);
+
+        mvc.perform(head("/users/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+        mvc.perform(head("/users/{id}", 2L))
+                .andExpect(status().isNotFound());
+        Mockito.verify(userService, Mockito.never()).findById(anyLong());
+    }
+
     @Test
     public void deleteTest() throws Exception {
         when(userService.deleteById(anyLong()))
@@ -10,10 +10,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.metrics.QueryStats;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.KnownEmailFilter;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -29,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class UserServiceImplTest {
     private final EntityManager em;
     private final UserService userService;
+    private final KnownEmailFilter knownEmailFilter;
 
     @Test
     public void createTest() {
@@ -139,12 +143,42 @@ public class UserServiceImplTest {
         userService.create(firstDto);
         userService.create(secDto);
 
-        List<User> users = userService.findAll();
+        List<User> users = userService.findAll(0L, 100);
 
         assertThat(users, notNullValue());
         assertThat(users.size(), equalTo(2));
     }
 
+    @Test
+    public void findAllShouldPageByKey() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userService.create(makeUserDto("name" + i, "email" + i)).getId());
+        }
+
+        List<User> first = userService.findAll(0L, 2);
+        List<User> second = userService.findAll(first.getLast().getId(), 2);
+        List<User> last = userService.findAll(second.getLast().getId(), 2);
+
+        assertThat(first.stream().map(User::getId).toList(), equalTo(ids.subList(0, 2)));
+        assertThat(second.stream().map(User::getId).toList(), equalTo(ids.subList(2, 4)));
+        assertThat(last.stream().map(User::getId).toList(), equalTo(ids.subList(4, 5)));
+    }
+
+    @Test
+    public void forEachUserShouldVisitAllUsersInIdOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(userService.create(makeUserDto("name" + i, "email" + i)).getId());
+        }
+        em.flush();
+
+        List<Long> visited = new ArrayList<>();
+        userService.forEachUser(user -> visited.add(user.getId()));
+
+        assertThat(visited, equalTo(ids));
+    }
+
     @Test
     public void findByIdTest() {
         UserRequestDto userDto = makeUserDto("testName", "testEmail");
@@ -176,6 +210,42 @@ public class UserServiceImplTest {
         assertThat(res, equalTo(true));
     }
 
+    @Test
+    public void createShouldNotQueryEmailKnownToBeNew() {
+        UserRequestDto userDto = makeUserDto("newName", "brand-new@example.com");
+        assertThat(knownEmailFilter.isDefinitelyNew(userDto.getEmail()), equalTo(true));
+
+        QueryStats.start();
+        userService.create(userDto);
+        QueryStats stats = QueryStats.stop();
+
+        assertThat(stats.getStatements(), equalTo(1));
+        assertThat(knownEmailFilter.isDefinitelyNew(userDto.getEmail()), equalTo(false));
+    }
+
+    @Test
+    public void constraintShouldRejectDuplicateUnknownToFilter() {
+        String email = "written-elsewhere@example.com";
+        em.createNativeQuery("INSERT INTO users (email, name) VALUES (?1, 'elsewhere')")
+                .setParameter(1, email)
+                .executeUpdate();
+        assertThat(knownEmailFilter.isDefinitelyNew(email), equalTo(true));
+
+        assertThrows(DuplicatedDataException.class, () -> userService.create(makeUserDto("name", email)));
+    }
+
+    @Test
+    public void constraintShouldRejectUpdateToDuplicateUnknownToFilter() {
+        Long userId = userService.create(makeUserDto("testName", "testEmail")).getId();
+        String email = "updated-elsewhere@example.com";
+        em.createNativeQuery("INSERT INTO users (email, name) VALUES (?1, 'elsewhere')")
+                .setParameter(1, email)
+                .executeUpdate();
+        assertThat(knownEmailFilter.isDefinitelyNew(email), equalTo(true));
+
+        assertThrows(DuplicatedDataException.class, () -> userService.update(userId, makeUserDto(null, email)));
+    }
+
     private UserRequestDto makeUserDto(String name, String email) {
         UserRequestDto userRequestDto = new UserRequestDto();
         userRequestDto.setName(name);